@@ -0,0 +1,84 @@
+package guru.springframework.spring6restmvc.jmh;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of {@link BeerNameIndex} over one million generated beer names; sample
+ * mode reports the p50/p99 percentiles.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BeerNameIndexBenchmark {
+
+    private static final int BEER_COUNT = 1_000_000;
+    private static final int TERM_COUNT = 10_000;
+
+    private static final String[] WORDS = {"hazy", "galaxy", "citra", "mosaic", "imperial", "stout", "porter",
+            "pilsner", "sour", "golden", "amber", "session", "double", "triple", "oak", "barrel", "river", "city",
+            "mountain", "sunset", "wild", "smoke", "cherry", "coffee", "vanilla", "lager", "harvest", "pale"};
+
+    BeerNameIndex beerNameIndex;
+    BeerStyle[] styles;
+    String[] terms;
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        beerNameIndex = new BeerNameIndex();
+        styles = BeerStyle.values();
+
+        for (int i = 0; i < BEER_COUNT; i++) {
+            beerNameIndex.put(UUID.randomUUID(), randomName(random), styles[random.nextInt(styles.length)]);
+        }
+
+        terms = new String[TERM_COUNT];
+        for (int i = 0; i < terms.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            int start = random.nextInt(Math.max(1, word.length() - 3));
+            terms[i] = word.substring(start, Math.min(word.length(), start + 3 + random.nextInt(3)))
+                    + (random.nextBoolean() ? "" : " " + WORDS[random.nextInt(WORDS.length)].substring(0, 2));
+        }
+    }
+
+    @Benchmark
+    public List<BeerNameIndex.Match> rankedTop25() {
+        return beerNameIndex.findRanked(nextTerm(), null, 25);
+    }
+
+    @Benchmark
+    public List<BeerNameIndex.Match> sortedByNameFilteredByStyle() {
+        String term = nextTerm();
+        return beerNameIndex.findSortedByName(term, styles[term.length() % styles.length]);
+    }
+
+    private String nextTerm() {
+        next = (next + 1) % terms.length;
+        return terms[next];
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 2 + random.nextInt(3);
+
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return name.append(' ').append(random.nextInt(1000)).toString();
+    }
+}
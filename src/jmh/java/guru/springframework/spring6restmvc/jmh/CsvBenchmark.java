@@ -0,0 +1,50 @@
+package guru.springframework.spring6restmvc.jmh;
+
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.services.BeerCsvService;
+import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvBenchmark {
+
+    BeerCsvService beerCsvService;
+    File csvFile;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        beerCsvService = new BeerCsvServiceImpl();
+        csvFile = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+    }
+
+    @Benchmark
+    public List<BeerCSVRecord> convertCsv() {
+        return beerCsvService.convertCSV(csvFile);
+    }
+
+    @Benchmark
+    public void iterateCsv(Blackhole blackhole) throws IOException {
+        try (Reader reader = new FileReader(csvFile)) {
+            Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader);
+            while (records.hasNext()) {
+                blackhole.consume(beerCsvService.csvRecordToBeer(records.next()));
+            }
+        }
+    }
+}
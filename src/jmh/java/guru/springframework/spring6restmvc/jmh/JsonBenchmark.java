@@ -0,0 +1,74 @@
+package guru.springframework.spring6restmvc.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    ObjectMapper objectMapper;
+    BeerDTO beerDTO;
+    Page<BeerDTO> beerPage;
+    String beerJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // same modules and date handling Spring Boot applies to its ObjectMapper
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        beerDTO = beer(0);
+        List<BeerDTO> beers = IntStream.range(0, 25).mapToObj(JsonBenchmark::beer).toList();
+        beerPage = new PageImpl<>(beers, PageRequest.of(0, 25), 2410);
+        beerJson = objectMapper.writeValueAsString(beerDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeBeer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeBeerPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerPage);
+    }
+
+    @Benchmark
+    public BeerDTO deserializeBeer() throws JsonProcessingException {
+        return objectMapper.readValue(beerJson, BeerDTO.class);
+    }
+
+    private static BeerDTO beer(int index) {
+        return BeerDTO.builder()
+                .id(UUID.randomUUID())
+                .version(1)
+                .beerName("Galaxy Cat " + index)
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("12345" + index)
+                .quantityOnHand(100 + index)
+                .price(new BigDecimal("12.99"))
+                .createdDate(LocalDateTime.now())
+                .updatedDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package guru.springframework.spring6restmvc.jmh;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Listing payloads per page size: the Spring {@code Page} against the compact {@link PageDTO}
+ * as JSON, Smile and CBOR, with and without Blackbird. Bytes on the wire, raw and gzipped,
+ * are printed once per trial since JMH only measures time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({"25", "250", "1000"})
+    int pageSize;
+
+    @Param({"false", "true"})
+    boolean blackbird;
+
+    ObjectMapper json;
+    ObjectMapper smile;
+    ObjectMapper cbor;
+    Page<BeerDTO> beerPage;
+    PageDTO<BeerDTO> compactPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = mapper(new JsonFactory());
+        smile = mapper(new SmileFactory());
+        cbor = mapper(new CBORFactory());
+
+        List<BeerDTO> beers = IntStream.range(0, pageSize).mapToObj(PageSerializationBenchmark::beer).toList();
+        beerPage = new PageImpl<>(beers, PageRequest.of(0, pageSize), 2410);
+        compactPage = PageDTO.of(beerPage);
+
+        if (!blackbird) {
+            report("page json", json.writeValueAsBytes(beerPage));
+            report("compact json", json.writeValueAsBytes(compactPage));
+            report("compact smile", smile.writeValueAsBytes(compactPage));
+            report("compact cbor", cbor.writeValueAsBytes(compactPage));
+        }
+    }
+
+    @Benchmark
+    public byte[] pageJson() throws IOException {
+        return json.writeValueAsBytes(beerPage);
+    }
+
+    @Benchmark
+    public byte[] compactJson() throws IOException {
+        return json.writeValueAsBytes(compactPage);
+    }
+
+    @Benchmark
+    public byte[] compactSmile() throws IOException {
+        return smile.writeValueAsBytes(compactPage);
+    }
+
+    @Benchmark
+    public byte[] compactCbor() throws IOException {
+        return cbor.writeValueAsBytes(compactPage);
+    }
+
+    private ObjectMapper mapper(JsonFactory factory) {
+        JsonMapper.Builder builder = JsonMapper.builder(factory)
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private void report(String format, byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        System.out.printf("%n%-14s pageSize=%-5d %8d bytes, %8d gzipped%n",
+                format, pageSize, body.length, gzipped.size());
+    }
+
+    private static BeerDTO beer(int index) {
+        return BeerDTO.builder()
+                .id(UUID.randomUUID())
+                .version(1)
+                .beerName("Galaxy Cat " + index)
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("12345" + index)
+                .quantityOnHand(100 + index)
+                .price(new BigDecimal("12.99"))
+                .createdDate(LocalDateTime.now())
+                .updatedDate(LocalDateTime.now())
+                .build();
+    }
+}
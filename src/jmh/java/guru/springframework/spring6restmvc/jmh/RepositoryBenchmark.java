@@ -0,0 +1,87 @@
+package guru.springframework.spring6restmvc.jmh;
+
+import guru.springframework.spring6restmvc.Spring6RestMvcApplication;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.BeerServiceJPA;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end service and repository calls against the embedded H2 database, loaded from
+ * {@code csvdata/beers.csv} by the application's own bootstrap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    BeerServiceJPA beerServiceJPA;
+    BeerRepository beerRepository;
+    List<UUID> beerIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Spring6RestMvcApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.guru.springframework=info")
+                .run();
+
+        beerService = context.getBean(BeerService.class);
+        beerServiceJPA = context.getBean(BeerServiceJPA.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        beerIds = beerRepository.findAll(PageRequest.of(0, 500)).map(beer -> beer.getId()).getContent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listBeersFirstPage() {
+        return beerService.listBeers(null, null, true, 1, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listBeersByStyle() {
+        return beerService.listBeers(null, BeerStyle.IPA, true, 2, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listBeersByName() {
+        return beerService.listBeers("IPA", null, true, 1, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> findBeerDtosFromRepository() {
+        return beerRepository.findBeerDtos(null, BeerStyle.ALE, true, beerServiceJPA.buildPageRequest(3, 25));
+    }
+
+    @Benchmark
+    public Optional<BeerDTO> getBeerById() {
+        return beerService.getBeerById(beerIds.get(ThreadLocalRandom.current().nextInt(beerIds.size())));
+    }
+
+    @Benchmark
+    public PageRequest buildPageRequest() {
+        return beerServiceJPA.buildPageRequest(ThreadLocalRandom.current().nextInt(1, 100), 50);
+    }
+}
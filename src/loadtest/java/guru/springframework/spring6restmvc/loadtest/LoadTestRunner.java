@@ -0,0 +1,208 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import guru.springframework.spring6restmvc.Spring6RestMvcApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application once per connection pool size and drives it with the configured
+ * traffic mix at each client thread count, recording per-endpoint latency with HdrHistogram.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>{@code loadtest.mix} - weighted operations, see {@link TrafficMix#DEFAULT_MIX}</li>
+ *     <li>{@code loadtest.pool-sizes} - Hikari maximum pool sizes to try, default {@code 5,10,20}</li>
+ *     <li>{@code loadtest.threads} - concurrent client threads to try, default {@code 8,32,64}</li>
+ *     <li>{@code loadtest.duration} / {@code loadtest.warmup} - per step, default {@code PT30S} / {@code PT5S}</li>
+ *     <li>{@code loadtest.mysql-mode} - run H2 in MySQL compatibility mode as a MySQL stand-in</li>
+ *     <li>{@code loadtest.profiles} - Spring profiles, e.g. {@code localmysql} against a real database</li>
+ *     <li>{@code loadtest.output} - directory for {@code results.csv} and the {@code .hgrm} files</li>
+ * </ul>
+ * Each step appends one CSV row per endpoint, so throughput and p99 can be plotted against
+ * pool size and thread count.
+ */
+public class LoadTestRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private record StepResult(Map<String, Histogram> latencies, Map<String, Long> errors, Duration elapsed) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        TrafficMix mix = new TrafficMix(System.getProperty("loadtest.mix", TrafficMix.DEFAULT_MIX));
+        int[] poolSizes = ints(System.getProperty("loadtest.pool-sizes", "5,10,20"));
+        int[] threadCounts = ints(System.getProperty("loadtest.threads", "8,32,64"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+        Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest"));
+
+        Files.createDirectories(output);
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output.resolve("results.csv")))) {
+            csv.println("pool_size,client_threads,endpoint,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+
+            for (int poolSize : poolSizes) {
+                try (ConfigurableApplicationContext context = start(poolSize)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+                    LoadTestTarget target = LoadTestTarget.discover(client, URI.create("http://localhost:" + port));
+
+                    for (int threads : threadCounts) {
+                        run(client, target, mix, threads, warmup);
+                        StepResult result = run(client, target, mix, threads, duration);
+
+                        report(poolSize, threads, result, csv, output);
+                        csv.flush();
+                    }
+                }
+            }
+        }
+
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(int poolSize) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "logging.level.guru.springframework=warn",
+                "spring.jpa.properties.hibernate.format_sql=false"));
+
+        if (Boolean.getBoolean("loadtest.mysql-mode")) {
+            properties.add("spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        }
+
+        String[] profiles = Arrays.stream(System.getProperty("loadtest.profiles", "").split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isEmpty())
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(Spring6RestMvcApplication.class)
+                .profiles(profiles)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    private static StepResult run(HttpClient client, LoadTestTarget target, TrafficMix mix,
+                                  int threads, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<String, Histogram>> latenciesPerThread = new ArrayList<>();
+        List<Map<String, Long>> errorsPerThread = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Map<String, Histogram> latencies = new TreeMap<>();
+            Map<String, Long> errors = new TreeMap<>();
+            Random random = new Random(i);
+            latenciesPerThread.add(latencies);
+            errorsPerThread.add(errors);
+
+            // each worker owns its histograms, merged once the step ends
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    Map.Entry<String, HttpRequest> call = mix.next(target, random);
+                    long start = System.nanoTime();
+                    boolean failed;
+
+                    try {
+                        HttpResponse<Void> response = client.send(call.getValue(), HttpResponse.BodyHandlers.discarding());
+                        failed = response.statusCode() >= 400;
+                    } catch (IOException e) {
+                        failed = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                    latencies.computeIfAbsent(call.getKey(), name -> new Histogram(MAX_LATENCY_MICROS, 3))
+                            .recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                    if (failed) {
+                        errors.merge(call.getKey(), 1L, Long::sum);
+                    }
+                }
+            }, "loadtest-" + i);
+            workers.add(worker);
+        }
+
+        long started = System.nanoTime();
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Map<String, Histogram> latencies = new TreeMap<>();
+        Map<String, Long> errors = new TreeMap<>();
+        for (int i = 0; i < threads; i++) {
+            latenciesPerThread.get(i).forEach((name, histogram) ->
+                    latencies.computeIfAbsent(name, key -> new Histogram(MAX_LATENCY_MICROS, 3)).add(histogram));
+            errorsPerThread.get(i).forEach((name, count) -> errors.merge(name, count, Long::sum));
+        }
+
+        return new StepResult(latencies, errors, elapsed);
+    }
+
+    private static void report(int poolSize, int threads, StepResult result, PrintWriter csv, Path output)
+            throws IOException {
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        result.latencies().values().forEach(all::add);
+        long allErrors = result.errors().values().stream().mapToLong(Long::longValue).sum();
+
+        System.out.printf("%npool=%d threads=%d: %.0f req/s, %d errors%n", poolSize, threads,
+                all.getTotalCount() / seconds(result.elapsed()), allErrors);
+
+        Map<String, Histogram> rows = new TreeMap<>(result.latencies());
+        rows.put("ALL", all);
+
+        for (Map.Entry<String, Histogram> row : rows.entrySet()) {
+            Histogram histogram = row.getValue();
+            long errors = row.getKey().equals("ALL") ? allErrors : result.errors().getOrDefault(row.getKey(), 0L);
+
+            String line = String.format("%d,%d,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f", poolSize, threads,
+                    row.getKey(), histogram.getTotalCount(), errors,
+                    histogram.getTotalCount() / seconds(result.elapsed()),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+            csv.println(line);
+            System.out.println("  " + line);
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                    output.resolve("pool" + poolSize + "-threads" + threads + "-" + row.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
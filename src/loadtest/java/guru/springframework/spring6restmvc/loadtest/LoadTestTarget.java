@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The running application plus a sample of ids that operations can address.
+ */
+record LoadTestTarget(URI baseUri, List<UUID> beerIds, List<UUID> customerIds) {
+
+    static LoadTestTarget discover(HttpClient client, URI baseUri) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return new LoadTestTarget(baseUri,
+                ids(client, objectMapper, baseUri.resolve("/api/v1/beer?pageSize=1000")),
+                ids(client, objectMapper, baseUri.resolve("/api/v1/customer?pageSize=1000")));
+    }
+
+    private static List<UUID> ids(HttpClient client, ObjectMapper objectMapper, URI uri)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        List<UUID> ids = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(response.body()).path("content")) {
+            ids.add(UUID.fromString(item.path("id").asText()));
+        }
+
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No ids returned from " + uri);
+        }
+        return ids;
+    }
+}
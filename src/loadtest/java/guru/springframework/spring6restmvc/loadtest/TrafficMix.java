@@ -0,0 +1,95 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Weighted mix of API calls, e.g. {@code getBeer=30,listBeers=25,patchBeer=5}.
+ */
+class TrafficMix {
+
+    static final String DEFAULT_MIX = "getBeer=30,listBeers=20,listBeersByStyle=10,listBeersByName=10,"
+            + "searchBeers=5,patchBeer=5,getCustomer=10,listCustomers=10";
+
+    private static final String[] NAME_TERMS = {"IPA", "Ale", "Stout", "Lager", "Porter", "Pale", "Red"};
+
+    private static final Map<String, BiFunction<LoadTestTarget, Random, HttpRequest>> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        OPERATIONS.put("getBeer", (target, random) ->
+                get(target, "/api/v1/beer/" + pick(target.beerIds(), random)));
+        OPERATIONS.put("listBeers", (target, random) ->
+                get(target, "/api/v1/beer?pageNumber=" + (1 + random.nextInt(20)) + "&pageSize=25"));
+        OPERATIONS.put("listBeersByStyle", (target, random) ->
+                get(target, "/api/v1/beer?beerStyle=" + pick(List.of(BeerStyle.values()), random) + "&pageSize=25"));
+        OPERATIONS.put("listBeersByName", (target, random) ->
+                get(target, "/api/v1/beer?beerName=" + NAME_TERMS[random.nextInt(NAME_TERMS.length)] + "&pageSize=25"));
+        OPERATIONS.put("searchBeers", (target, random) ->
+                get(target, "/api/v1/beer/search?query=" + NAME_TERMS[random.nextInt(NAME_TERMS.length)] + "&limit=10"));
+        OPERATIONS.put("patchBeer", (target, random) -> HttpRequest
+                .newBuilder(target.baseUri().resolve("/api/v1/beer/" + pick(target.beerIds(), random)))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                        "{\"quantityOnHand\":" + random.nextInt(500) + "}"))
+                .build());
+        OPERATIONS.put("getCustomer", (target, random) ->
+                get(target, "/api/v1/customer/" + pick(target.customerIds(), random)));
+        OPERATIONS.put("listCustomers", (target, random) ->
+                get(target, "/api/v1/customer?pageSize=25"));
+    }
+
+    private record Entry(String name, int cumulativeWeight, BiFunction<LoadTestTarget, Random, HttpRequest> request) {
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final int totalWeight;
+
+    TrafficMix(String spec) {
+        int cumulative = 0;
+
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            BiFunction<LoadTestTarget, Random, HttpRequest> request = OPERATIONS.get(nameAndWeight[0]);
+
+            if (request == null || nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + part + "', known operations: "
+                        + OPERATIONS.keySet());
+            }
+
+            cumulative += Integer.parseInt(nameAndWeight[1]);
+            entries.add(new Entry(nameAndWeight[0], cumulative, request));
+        }
+
+        totalWeight = cumulative;
+    }
+
+    List<String> operationNames() {
+        return entries.stream().map(Entry::name).toList();
+    }
+
+    Map.Entry<String, HttpRequest> next(LoadTestTarget target, Random random) {
+        int roll = random.nextInt(totalWeight);
+
+        for (Entry entry : entries) {
+            if (roll < entry.cumulativeWeight()) {
+                return Map.entry(entry.name(), entry.request().apply(target, random));
+            }
+        }
+        throw new IllegalStateException("Weights must be positive");
+    }
+
+    private static HttpRequest get(LoadTestTarget target, String path) {
+        return HttpRequest.newBuilder(target.baseUri().resolve(path)).GET().build();
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
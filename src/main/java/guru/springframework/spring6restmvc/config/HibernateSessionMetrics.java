@@ -0,0 +1,125 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-session Hibernate statistics, registered through {@code hibernate.session.events.auto}.
+ * Hibernate creates one instance per session, and with open-in-view a session spans one
+ * request, so these are per-request numbers tagged with the handler's URI pattern.
+ * <p>
+ * Hibernate instantiates this class itself, so it records to the global registry that Boot
+ * feeds the application's registries into.
+ */
+public class HibernateSessionMetrics implements SessionEventListener {
+
+    private final MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private int statements;
+    private long jdbcNanos;
+    private long statementStart;
+    private int cacheHits;
+    private int cacheMisses;
+    private int cachePuts;
+    private int flushedEntities;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+        jdbcNanos += System.nanoTime() - statementStart;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statements++;
+        jdbcNanos += System.nanoTime() - statementStart;
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    @Override
+    public void cachePutEnd() {
+        cachePuts++;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void end() {
+        String uri = currentUri();
+
+        DistributionSummary.builder("app.hibernate.session.statements")
+                .description("JDBC statements executed per session")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder("app.hibernate.session.jdbc")
+                .description("Time spent executing JDBC statements per session")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(jdbcNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("app.hibernate.session.flushed.entities")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(flushedEntities);
+
+        incrementCache(uri, "hit", cacheHits);
+        incrementCache(uri, "miss", cacheMisses);
+        incrementCache(uri, "put", cachePuts);
+    }
+
+    private void incrementCache(String uri, String result, int amount) {
+        if (amount > 0) {
+            Counter.builder("app.hibernate.session.cache")
+                    .tag("uri", uri)
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment(amount);
+        }
+    }
+
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "none";
+        }
+
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
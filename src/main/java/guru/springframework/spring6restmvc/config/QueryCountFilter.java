@@ -0,0 +1,152 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Optional;
+
+/**
+ * Counts the statements each request runs. The count goes into the {@code X-Query-Count}
+ * header and the {@code app.http.queries} summary. A select repeated more than
+ * {@code app.query-count.n-plus-one-threshold} times in one request is logged as a likely
+ * N+1, or fails the request when {@code app.query-count.fail-on-n-plus-one} is set and the
+ * response has not been committed yet; once it has, the violation is only logged.
+ * <p>
+ * The header holds the statements run before the body was first written. The counter is
+ * bound to the request thread and async dispatches are not filtered, so statements run on
+ * another thread, say from a {@code StreamingResponseBody}, appear in neither header nor metric.
+ */
+@Slf4j
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final boolean failOnNPlusOne;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${app.query-count.n-plus-one-threshold:10}") int nPlusOneThreshold,
+                            @Value("${app.query-count.fail-on-n-plus-one:false}") boolean failOnNPlusOne) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.failOnNPlusOne = failOnNPlusOne;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.QueryCount count = QueryCounter.start();
+        CountStampingResponse stampingResponse = new CountStampingResponse(request, response, count);
+
+        try {
+            filterChain.doFilter(request, stampingResponse);
+        } finally {
+            QueryCounter.stop(count);
+        }
+
+        if (!response.isCommitted()) {
+            response.setHeader(QUERY_COUNT_HEADER, String.valueOf(count.total()));
+        }
+
+        String uri = uriPattern(request);
+        DistributionSummary.builder("app.http.queries")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count.total());
+
+        if (!stampingResponse.nPlusOneReported) {
+            nPlusOneMessage(request, count).ifPresent(message -> reportNPlusOne(message, !response.isCommitted()));
+        }
+    }
+
+    private Optional<String> nPlusOneMessage(HttpServletRequest request, QueryCounter.QueryCount count) {
+        return count.mostRepeatedSelect()
+                .filter(repeated -> repeated.getValue() > nPlusOneThreshold)
+                .map(repeated -> "Possible N+1 on " + request.getMethod() + " " + uriPattern(request)
+                        + ": select executed " + repeated.getValue()
+                        + " times (" + count.total() + " statements in total): " + repeated.getKey());
+    }
+
+    /**
+     * Fails the request only while an error response can still replace the body.
+     */
+    private void reportNPlusOne(String message, boolean canFail) {
+        if (failOnNPlusOne && canFail) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(failOnNPlusOne ? message + " (response already committed)" : message);
+    }
+
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    /**
+     * Sets the header, and runs the N+1 check, at the last moment either can still change the
+     * response: the first write to the body.
+     */
+    private class CountStampingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final QueryCounter.QueryCount count;
+        private boolean nPlusOneReported;
+
+        CountStampingResponse(HttpServletRequest request, HttpServletResponse response,
+                              QueryCounter.QueryCount count) {
+            super(response);
+            this.request = request;
+            this.count = count;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        private void stamp() {
+            if (isCommitted()) {
+                return;
+            }
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(count.total()));
+            if (!nPlusOneReported) {
+                Optional<String> message = nPlusOneMessage(request, count);
+                if (message.isPresent()) {
+                    // set first: the error response is written through this wrapper too
+                    nPlusOneReported = true;
+                    reportNPlusOne(message.get(), true);
+                }
+            }
+        }
+    }
+}
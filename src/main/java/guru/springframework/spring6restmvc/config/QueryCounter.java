@@ -0,0 +1,87 @@
+package guru.springframework.spring6restmvc.config;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ * {@link QueryCountFilter} opens one per HTTP request; tests can wrap a call in
+ * {@link #count(Supplier)} to assert an upper bound for an endpoint.
+ * <p>
+ * Counts nest: a statement is added to every count open on the thread.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryCount start() {
+        QueryCount count = new QueryCount(CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    public static void stop(QueryCount count) {
+        if (count.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(count.parent);
+        }
+    }
+
+    public static <T> Counted<T> count(Supplier<T> action) {
+        QueryCount count = start();
+        try {
+            return new Counted<>(action.get(), count);
+        } finally {
+            stop(count);
+        }
+    }
+
+    static void record(String sql) {
+        for (QueryCount count = CURRENT.get(); count != null; count = count.parent) {
+            count.record(sql);
+        }
+    }
+
+    public record Counted<T>(T result, QueryCount queryCount) {
+    }
+
+    public static class QueryCount {
+
+        private final QueryCount parent;
+        private final Map<String, Integer> selects = new HashMap<>();
+        private int total;
+
+        private QueryCount(QueryCount parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            total++;
+            if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public int selects() {
+            return selects.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        /**
+         * The select run most often in this count, the usual fingerprint of an N+1.
+         */
+        public Optional<Map.Entry<String, Integer>> mostRepeatedSelect() {
+            return selects.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+    }
+}
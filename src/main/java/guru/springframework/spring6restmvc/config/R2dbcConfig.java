@@ -0,0 +1,69 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PROTOCOL;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+
+@Configuration
+public class R2dbcConfig {
+
+    private static final String H2_MEM_PREFIX = "jdbc:h2:mem:";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Boot's {@code DataSourceAutoConfiguration} backs off as soon as a {@link ConnectionFactory}
+     * bean exists, so the JDBC pool JPA and Flyway run on is declared here from the same
+     * {@code spring.datasource.*} properties.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Without {@code spring.r2dbc.url} Boot would start a second, empty embedded database.
+     * Point R2DBC at the in-memory H2 database the JPA side already created instead.
+     */
+    @Bean
+    @ConditionalOnExpression("'${spring.r2dbc.url:}'.isEmpty()")
+    public ConnectionFactory embeddedConnectionFactory(DataSource dataSource) throws MetaDataAccessException {
+        String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+
+        if (url == null || !url.startsWith(H2_MEM_PREFIX)) {
+            throw new IllegalStateException("spring.r2dbc.url must be set for " + url);
+        }
+
+        String databaseName = url.substring(H2_MEM_PREFIX.length()).split(";")[0];
+
+        return ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(DRIVER, "h2")
+                .option(PROTOCOL, "mem")
+                .option(DATABASE, databaseName)
+                .option(USER, "sa")
+                .option(PASSWORD, "")
+                .build());
+    }
+}
@@ -0,0 +1,133 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Times every public method of the {@code @Service} beans as {@code app.service.invocations}.
+ * Besides service, method, outcome and exception, each sample is tagged with the shape of the
+ * listing it served: which filters were set, the {@link BeerStyle} and a bucketed page size.
+ * Every sample carries the same tag keys, as Prometheus requires.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "app.service.invocations";
+
+    private static final Set<String> NAME_FILTERS = Set.of("beerName", "query", "customerName", "email");
+    private static final Set<String> PAGE_SIZES = Set.of("pageSize", "limit");
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@within(org.springframework.stereotype.Service) && within(guru.springframework.spring6restmvc.services..*)")
+    public Object timeInvocation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = tagsFor(joinPoint);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(sample, tags, e);
+            throw e;
+        }
+
+        // publishers only do their work once subscribed, so time them until they terminate
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample subscribed = Timer.start(meterRegistry);
+                AtomicReference<Throwable> error = new AtomicReference<>();
+                return flux.doOnError(error::set).doFinally(signal -> stop(subscribed, tags, error.get()));
+            });
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample subscribed = Timer.start(meterRegistry);
+                AtomicReference<Throwable> error = new AtomicReference<>();
+                return mono.doOnError(error::set).doFinally(signal -> stop(subscribed, tags, error.get()));
+            });
+        }
+
+        stop(sample, tags, null);
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, Tags tags, Throwable error) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Service method latency")
+                .tags(tags)
+                .tag("outcome", error == null ? "SUCCESS" : "ERROR")
+                .tag("exception", error == null ? NONE : error.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+
+    private static Tags tagsFor(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String[] parameterNames = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+
+        boolean nameFiltered = false;
+        BeerStyle beerStyle = null;
+        Integer pageSize = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String parameterName = parameterNames == null ? "" : parameterNames[i];
+
+            if (args[i] instanceof BeerStyle style) {
+                beerStyle = style;
+            } else if (NAME_FILTERS.contains(parameterName) && args[i] instanceof String value) {
+                nameFiltered |= StringUtils.hasText(value);
+            } else if (PAGE_SIZES.contains(parameterName) && args[i] instanceof Integer value) {
+                pageSize = value;
+            }
+        }
+
+        return Tags.of(
+                "service", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName(),
+                "method", signature.getName(),
+                "filter", filterShape(nameFiltered, beerStyle != null),
+                "beer_style", beerStyle == null ? NONE : beerStyle.name(),
+                "page_size", pageSizeBucket(pageSize));
+    }
+
+    private static String filterShape(boolean nameFiltered, boolean styleFiltered) {
+        if (nameFiltered && styleFiltered) {
+            return "name+style";
+        }
+        if (nameFiltered) {
+            return "name";
+        }
+        return styleFiltered ? "style" : NONE;
+    }
+
+    private static String pageSizeBucket(Integer pageSize) {
+        if (pageSize == null) {
+            return "default";
+        }
+        if (pageSize <= 25) {
+            return "le25";
+        }
+        if (pageSize <= 100) {
+            return "le100";
+        }
+        return pageSize <= 1000 ? "le1000" : "gt1000";
+    }
+}
@@ -1,17 +1,34 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchItemResultDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.CursorPageDTO;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import guru.springframework.spring6restmvc.services.BeerBatchService;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import guru.springframework.spring6restmvc.services.BeerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -21,18 +38,49 @@ public class BeerController {
 
     public static final String BEER_PATH = "/api/v1/beer";
     public static final String BEER_PATH_ID = BEER_PATH + "/{beerId}";
+    public static final String BEER_IMPORT_PATH = BEER_PATH + "/import";
+    public static final String BEER_EXPORT_PATH = BEER_PATH + "/export";
+    public static final String BEER_SEARCH_PATH = BEER_PATH + "/search";
+    public static final String BEER_BATCH_PATH = BEER_PATH + "/batch";
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
 
     private final BeerService beerService;
+    private final BeerImportService beerImportService;
+    private final BeerExportService beerExportService;
+    private final BeerBatchService beerBatchService;
 
     @PatchMapping(BEER_PATH_ID)
     public ResponseEntity updateBeerPatchById(@PathVariable("beerId") UUID beerId, @RequestBody BeerDTO beerDTO) {
-        if (beerService.patchBeerById(beerId, beerDTO).isEmpty()) {
+        if (!beerService.patchBeerById(beerId, beerDTO)) {
             throw new NotFoundException();
         }
 
         return new ResponseEntity(HttpStatus.NO_CONTENT);
     }
 
+    @PatchMapping(value = BEER_PATH_ID, headers = HttpHeaders.IF_MATCH)
+    public ResponseEntity patchByIdIfMatch(@PathVariable("beerId") UUID beerId,
+                                           @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+                                           @RequestBody BeerDTO beerDTO) {
+        if (ETags.isWildcard(ifMatch)) {
+            return updateBeerPatchById(beerId, beerDTO);
+        }
+
+        Optional<Integer> expectedVersion = ETags.versionOf(beerId, ifMatch);
+        if (expectedVersion.isEmpty()) {
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        Integer version = beerService.patchBeerByIdIfVersion(beerId, expectedVersion.get(), beerDTO)
+                .orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.noContent().eTag(ETags.strong(beerId, version)).build();
+    }
+
     @DeleteMapping(BEER_PATH_ID)
     public ResponseEntity deleteById(@PathVariable("beerId") UUID beerId) {
 
@@ -52,6 +100,26 @@ public class BeerController {
         return new ResponseEntity(HttpStatus.NO_CONTENT);
     }
 
+    @PutMapping(value = BEER_PATH_ID, headers = HttpHeaders.IF_MATCH)
+    public ResponseEntity updateByIdIfMatch(@PathVariable("beerId") UUID beerId,
+                                            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+                                            @Validated @RequestBody BeerDTO beerDTO) {
+        if (ETags.isWildcard(ifMatch)) {
+            return updateById(beerId, beerDTO);
+        }
+
+        // a tag for another beer or in another format can never match
+        Optional<Integer> expectedVersion = ETags.versionOf(beerId, ifMatch);
+        if (expectedVersion.isEmpty()) {
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        Integer version = beerService.updateBeerByIdIfVersion(beerId, expectedVersion.get(), beerDTO)
+                .orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.noContent().eTag(ETags.strong(beerId, version)).build();
+    }
+
     @PostMapping(BEER_PATH)
     public ResponseEntity handlePost(@Validated @RequestBody BeerDTO beerDTO) {
         BeerDTO savedBeerDTO = beerService.saveNewBeer(beerDTO);
@@ -62,19 +130,131 @@ public class BeerController {
         return new ResponseEntity(headers, HttpStatus.CREATED);
     }
 
+    @PostMapping(BEER_BATCH_PATH)
+    public List<BeerBatchItemResultDTO> processBatch(@RequestBody List<BeerBatchItemDTO> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch is limited to " + MAX_BATCH_SIZE + " items");
+        }
+
+        return beerBatchService.process(items);
+    }
+
+    @PostMapping(value = BEER_IMPORT_PATH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BeerImportResultDTO importBeers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return beerImportService.importBeers(inputStream);
+        }
+    }
+
+    @GetMapping(BEER_EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(NDJSON)
+                    .body(beerExportService::exportNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beers.csv")
+                    .body(beerExportService::exportCsv);
+            default -> throw new BadRequestException("Unsupported export format: " + format);
+        };
+    }
+
     @GetMapping(BEER_PATH)
-    public Page<BeerDTO> listBeers(@RequestParam(required = false) String beerName,
-                                   @RequestParam(required = false) BeerStyle beerStyle,
-                                   @RequestParam(required = false) Boolean showInventory,
-                                   @RequestParam(required = false) Integer pageNumber,
-                                   @RequestParam(required = false) Integer pageSize) {
-        return beerService.listBeers(beerName, beerStyle, showInventory, pageNumber, pageSize);
+    public ResponseEntity<PageDTO<BeerDTO>> listBeers(@RequestParam(required = false) String beerName,
+                                                      @RequestParam(required = false) BeerStyle beerStyle,
+                                                      @RequestParam(required = false) Boolean showInventory,
+                                                      @RequestParam(required = false) Integer pageNumber,
+                                                      @RequestParam(required = false) Integer pageSize,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                      String ifNoneMatch) {
+        // any change to any beer retags every listing, which is what polling clients need; only a
+        // conditional request pays for the current version, the rest are tagged with the last one seen
+        String eTag;
+        if (ifNoneMatch != null) {
+            eTag = ETags.weak(beerService.getCatalogVersion());
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        } else {
+            eTag = ETags.weak(beerService.getRecentCatalogVersion());
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(PageDTO.of(beerService.listBeers(beerName, beerStyle, showInventory, pageNumber, pageSize)));
+    }
+
+    @GetMapping(BEER_SEARCH_PATH)
+    public List<BeerDTO> searchBeers(@RequestParam String query,
+                                     @RequestParam(required = false) BeerStyle beerStyle,
+                                     @RequestParam(required = false) Boolean showInventory,
+                                     @RequestParam(required = false) Integer limit) {
+        if (!StringUtils.hasText(query)) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+
+        return beerService.searchBeers(query, beerStyle, showInventory, limit);
+    }
+
+    @GetMapping(value = BEER_PATH, params = "after")
+    public CursorPageDTO<BeerDTO> listBeersAfter(@RequestParam(required = false) String beerName,
+                                                 @RequestParam(required = false) BeerStyle beerStyle,
+                                                 @RequestParam(required = false) Boolean showInventory,
+                                                 @RequestParam String after,
+                                                 @RequestParam(required = false) Integer pageSize) {
+        SeekCursor cursor = null;
+
+        if (StringUtils.hasText(after)) {
+            try {
+                cursor = SeekCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+            // beer names are never null, so only a forged cursor comes without one
+            if (cursor.key() == null) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        Slice<BeerDTO> beerSlice = beerService.listBeersAfter(beerName, beerStyle, showInventory, cursor, pageSize);
+        List<BeerDTO> content = beerSlice.getContent();
+
+        String nextCursor = null;
+        if (beerSlice.hasNext() && !content.isEmpty()) {
+            BeerDTO last = content.get(content.size() - 1);
+            nextCursor = SeekCursor.of(last.getBeerName(), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<BeerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(beerSlice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
 
     @GetMapping(BEER_PATH_ID)
-    public BeerDTO getBeerById(@PathVariable("beerId") UUID beerId) {
+    public ResponseEntity<BeerDTO> getBeerById(@PathVariable("beerId") UUID beerId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
         log.debug("Get Beer by Id - in controller");
-        return beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+
+        // revalidation only needs the version, not the row
+        if (StringUtils.hasText(ifNoneMatch)) {
+            Optional<String> currentETag = beerService.getBeerVersion(beerId)
+                    .map(version -> ETags.strong(beerId, version));
+
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+
+        BeerDTO beerDTO = beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(beerId, beerDTO.getVersion()))
+                .body(beerDTO);
     }
 }
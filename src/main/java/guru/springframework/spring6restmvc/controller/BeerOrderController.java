@@ -0,0 +1,53 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class BeerOrderController {
+
+    public static final String ORDER_PATH = "/api/v1/order";
+    public static final String ORDER_PATH_ID = ORDER_PATH + "/{orderId}";
+
+    private final BeerOrderService beerOrderService;
+
+    @GetMapping(ORDER_PATH)
+    public Page<BeerOrderDTO> listOrders(@RequestParam(required = false) Integer pageNumber,
+                                         @RequestParam(required = false) Integer pageSize) {
+        return beerOrderService.listOrders(pageNumber, pageSize);
+    }
+
+    @PostMapping(ORDER_PATH)
+    public ResponseEntity placeOrder(@Validated @RequestBody BeerOrderCreateDTO beerOrderCreateDTO) {
+        BeerOrderDTO savedOrder = beerOrderService.placeOrder(beerOrderCreateDTO)
+                .orElseThrow(NotFoundException::new);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Location", ORDER_PATH + "/" + savedOrder.getId());
+        return new ResponseEntity(headers, HttpStatus.CREATED);
+    }
+
+    @GetMapping(ORDER_PATH_ID)
+    public BeerOrderDTO getOrderById(@PathVariable("orderId") UUID orderId) {
+        log.debug("Get Order by Id - in controller");
+        return beerOrderService.getOrderById(orderId).orElseThrow(NotFoundException::new);
+    }
+}
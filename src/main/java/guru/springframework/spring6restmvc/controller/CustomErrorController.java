@@ -1,6 +1,11 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.services.InsufficientInventoryException;
+import guru.springframework.spring6restmvc.services.StaleVersionException;
+import guru.springframework.spring6restmvc.services.UnknownBeerException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -43,4 +48,42 @@ public class CustomErrorController {
 
         return ResponseEntity.badRequest().body(errorList);
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    ResponseEntity handleConstraintViolations(ConstraintViolationException exception) {
+        List<Map<String, String>> errorList = exception.getConstraintViolations().stream()
+                .map(constraintViolation -> {
+                    Map<String, String> errorMap = new HashMap<>();
+                    errorMap.put(constraintViolation.getPropertyPath().toString(),
+                            constraintViolation.getMessage());
+                    return errorMap;
+                }).toList();
+
+        return ResponseEntity.badRequest().body(errorList);
+    }
+
+    @ExceptionHandler(StaleVersionException.class)
+    ResponseEntity handleStaleVersion(StaleVersionException exception) {
+        // the current tag lets the client refetch or retry without another round trip to find it
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(ETags.strong(exception.getId(), exception.getCurrentVersion()))
+                .build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity handleOptimisticLockingFailure(OptimisticLockingFailureException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(UnknownBeerException.class)
+    ResponseEntity handleUnknownBeer(UnknownBeerException exception) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("unknownBeers", exception.getBeerIds()));
+    }
+
+    @ExceptionHandler(InsufficientInventoryException.class)
+    ResponseEntity handleInsufficientInventory(InsufficientInventoryException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("insufficientInventory", exception.getBeerIds()));
+    }
 }
@@ -1,15 +1,21 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.model.CursorPageDTO;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import guru.springframework.spring6restmvc.services.CustomerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -23,9 +29,29 @@ public class CustomerController {
 
     @PatchMapping(CUSTOMER_PATH_ID)
     public ResponseEntity patchCustomerById(@PathVariable("customerId") UUID customerId, @RequestBody CustomerDTO customerDTO) {
-        if (customerService.patchById(customerId, customerDTO).isEmpty()) {
+        if (!customerService.patchById(customerId, customerDTO)) {
             throw new NotFoundException();
-        }        return new ResponseEntity(HttpStatus.NO_CONTENT);
+        }
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
+
+    @PatchMapping(value = CUSTOMER_PATH_ID, headers = HttpHeaders.IF_MATCH)
+    public ResponseEntity patchCustomerByIdIfMatch(@PathVariable("customerId") UUID customerId,
+                                                   @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+                                                   @RequestBody CustomerDTO customerDTO) {
+        if (ETags.isWildcard(ifMatch)) {
+            return patchCustomerById(customerId, customerDTO);
+        }
+
+        Optional<Integer> expectedVersion = ETags.versionOf(customerId, ifMatch);
+        if (expectedVersion.isEmpty()) {
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        Integer version = customerService.patchByIdIfVersion(customerId, expectedVersion.get(), customerDTO)
+                .orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.noContent().eTag(ETags.strong(customerId, version)).build();
     }
 
     @DeleteMapping(CUSTOMER_PATH_ID)
@@ -45,6 +71,25 @@ public class CustomerController {
         return new ResponseEntity(HttpStatus.NO_CONTENT);
     }
 
+    @PutMapping(value = CUSTOMER_PATH_ID, headers = HttpHeaders.IF_MATCH)
+    public ResponseEntity updateByIdIfMatch(@PathVariable("customerId") UUID customerId,
+                                            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+                                            @RequestBody CustomerDTO customerDTO) {
+        if (ETags.isWildcard(ifMatch)) {
+            return updateById(customerId, customerDTO);
+        }
+
+        Optional<Integer> expectedVersion = ETags.versionOf(customerId, ifMatch);
+        if (expectedVersion.isEmpty()) {
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        Integer version = customerService.updateCustomerByIdIfVersion(customerId, expectedVersion.get(), customerDTO)
+                .orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.noContent().eTag(ETags.strong(customerId, version)).build();
+    }
+
     @PostMapping(CUSTOMER_PATH)
     public ResponseEntity handlePost(@RequestBody CustomerDTO customerDTO) {
         CustomerDTO customerDTOSaved = customerService.saveNewCustomer(customerDTO);
@@ -54,15 +99,61 @@ public class CustomerController {
     }
 
     @GetMapping(CUSTOMER_PATH)
-    public List<CustomerDTO> listCustomer() {
+    public CursorPageDTO<CustomerDTO> listCustomers(@RequestParam(required = false) String customerName,
+                                                   @RequestParam(required = false) String email,
+                                                   @RequestParam(required = false) CustomerSortField sortBy,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer pageSize) {
         log.debug("Returning the list of customers");
-        return customerService.listCustomer();
+
+        SeekCursor cursor = null;
+
+        if (StringUtils.hasText(after)) {
+            try {
+                cursor = SeekCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+        }
+
+        CustomerSortField sortField = sortBy == null ? CustomerSortField.CUSTOMER_NAME : sortBy;
+        Slice<CustomerDTO> customerSlice = customerService.listCustomers(customerName, email, sortField, cursor, pageSize);
+        List<CustomerDTO> content = customerSlice.getContent();
+
+        String nextCursor = null;
+        if (customerSlice.hasNext() && !content.isEmpty()) {
+            CustomerDTO last = content.get(content.size() - 1);
+            nextCursor = SeekCursor.of(sortField.keyOf(last), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<CustomerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(customerSlice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @GetMapping(CUSTOMER_PATH_ID)
-    public CustomerDTO getCustomerById(@PathVariable("customerId") UUID customerId) {
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable("customerId") UUID customerId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                       String ifNoneMatch) {
         log.debug("Returning the customer by id. Id: " + customerId);
-        return customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+
+        if (StringUtils.hasText(ifNoneMatch)) {
+            Optional<String> currentETag = customerService.getCustomerVersion(customerId)
+                    .map(version -> ETags.strong(customerId, version));
+
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+
+        CustomerDTO customerDTO = customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(customerId, customerDTO.getVersion()))
+                .body(customerDTO);
     }
 
 }
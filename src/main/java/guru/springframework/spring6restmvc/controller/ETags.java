@@ -0,0 +1,73 @@
+package guru.springframework.spring6restmvc.controller;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Entity tags for conditional requests. A single resource is tagged with its id and
+ * {@code @Version}, so the tag can be checked from the version column alone without
+ * loading or mapping the row.
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String strong(UUID id, Integer version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String weak(String token) {
+        return WEAK_PREFIX + "\"" + token + "\"";
+    }
+
+    /**
+     * Weak comparison, as If-None-Match requires: {@code W/"x"} and {@code "x"} match.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+
+        String opaqueTag = opaqueTag(eTag);
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaqueTag(trimmed).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an If-Match header names for this id, if any. If-Match compares strongly,
+     * so weak tags never name a version.
+     */
+    public static Optional<Integer> versionOf(UUID id, String ifMatch) {
+        String prefix = "\"" + id + "-";
+
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith(prefix) && trimmed.endsWith("\"")) {
+                try {
+                    return Optional.of(Integer.valueOf(trimmed.substring(prefix.length(), trimmed.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // not one of ours, try the next one
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static boolean isWildcard(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
@@ -0,0 +1,49 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.ReactiveBeerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read-only beer API backed by R2DBC. The request thread is released as soon as the query
+ * is issued; {@code application/x-ndjson} streams rows as they arrive, plain JSON collects
+ * them into one array.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ReactiveBeerController {
+
+    public static final String REACTIVE_BEER_PATH = "/api/v1/reactive/beer";
+    public static final String REACTIVE_BEER_PATH_ID = REACTIVE_BEER_PATH + "/{beerId}";
+
+    private final ReactiveBeerService reactiveBeerService;
+
+    @GetMapping(value = REACTIVE_BEER_PATH,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BeerDTO> listBeers(@RequestParam(required = false) String beerName,
+                                   @RequestParam(required = false) BeerStyle beerStyle,
+                                   @RequestParam(required = false) Boolean showInventory,
+                                   @RequestParam(required = false) Integer limit) {
+        log.debug("Streaming beers, beerName: " + beerName + ", beerStyle: " + beerStyle);
+
+        return reactiveBeerService.listBeers(beerName, beerStyle, showInventory, limit);
+    }
+
+    @GetMapping(REACTIVE_BEER_PATH_ID)
+    public Mono<BeerDTO> getBeerById(@PathVariable("beerId") UUID beerId) {
+        return reactiveBeerService.getBeerById(beerId)
+                .switchIfEmpty(Mono.error(NotFoundException::new));
+    }
+}
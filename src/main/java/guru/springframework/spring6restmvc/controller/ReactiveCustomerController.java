@@ -0,0 +1,37 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.services.ReactiveCustomerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+public class ReactiveCustomerController {
+
+    public static final String REACTIVE_CUSTOMER_PATH = "/api/v1/reactive/customer";
+    public static final String REACTIVE_CUSTOMER_PATH_ID = REACTIVE_CUSTOMER_PATH + "/{customerId}";
+
+    private final ReactiveCustomerService reactiveCustomerService;
+
+    @GetMapping(value = REACTIVE_CUSTOMER_PATH,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerDTO> listCustomers(@RequestParam(required = false) String customerName,
+                                           @RequestParam(required = false) Integer limit) {
+        return reactiveCustomerService.listCustomers(customerName, limit);
+    }
+
+    @GetMapping(REACTIVE_CUSTOMER_PATH_ID)
+    public Mono<CustomerDTO> getCustomerById(@PathVariable("customerId") UUID customerId) {
+        return reactiveCustomerService.getCustomerById(customerId)
+                .switchIfEmpty(Mono.error(NotFoundException::new));
+    }
+}
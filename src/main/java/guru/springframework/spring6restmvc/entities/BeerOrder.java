@@ -2,11 +2,10 @@ package guru.springframework.spring6restmvc.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
 import java.util.Set;
@@ -15,10 +14,19 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+@NamedEntityGraph(name = BeerOrder.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode("beerOrderShipment"),
+                @NamedAttributeNode(value = "beerOrderLines", subgraph = "beerOrderLines")
+        },
+        subgraphs = @NamedSubgraph(name = "beerOrderLines", attributeNodes = @NamedAttributeNode("beer")))
 @NoArgsConstructor
 @Builder
 public class BeerOrder {
 
+    public static final String DETAIL_GRAPH = "BeerOrder.detail";
+
     public BeerOrder(UUID id, Long version,
                      Timestamp createdDate,
                      Timestamp lastModifiedDate,
@@ -41,10 +49,9 @@ public class BeerOrder {
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(
             name = "UUID",
-            strategy = "org.hibernate.id.UUIDGenerator"
+            strategy = "guru.springframework.spring6restmvc.entities.TimeOrderedUuidGenerator"
     )
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Version
@@ -63,22 +70,27 @@ public class BeerOrder {
 
     private String customerRef;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
-        customer.getBeerOrders().add(this);
+        // keep the other side in step without loading every order the customer has
+        if (Hibernate.isInitialized(customer.getBeerOrders())) {
+            customer.getBeerOrders().add(this);
+        }
     }
 
     public void setBeerOrderShipment(BeerOrderShipment beerOrderShipment) {
         this.beerOrderShipment = beerOrderShipment;
-        beerOrderShipment.setBeerOrder(this);
+        if (beerOrderShipment != null) {
+            beerOrderShipment.setBeerOrder(this);
+        }
     }
 
-    @OneToMany(mappedBy = "beerOrder")
+    @OneToMany(mappedBy = "beerOrder", cascade = CascadeType.PERSIST)
     private Set<BeerOrderLine> beerOrderLines;
 
-    @OneToOne(cascade = CascadeType.PERSIST)
+    @OneToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
     private BeerOrderShipment beerOrderShipment;
 }
@@ -4,9 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
 import java.util.UUID;
@@ -22,10 +20,9 @@ public class BeerOrderLine {
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(
             name = "UUID",
-            strategy = "org.hibernate.id.UUIDGenerator"
+            strategy = "guru.springframework.spring6restmvc.entities.TimeOrderedUuidGenerator"
     )
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Version
@@ -45,9 +42,14 @@ public class BeerOrderLine {
     private Integer orderQuantity = 0;
     private Integer quantityAllocated = 0;
 
-    @ManyToOne
+    // false while the allocation is held only by the inventory ledger and not yet taken off beer
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean inventoryFlushed = true;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     private BeerOrder beerOrder;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Beer beer;
 }
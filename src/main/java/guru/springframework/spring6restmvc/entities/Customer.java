@@ -1,15 +1,15 @@
 package guru.springframework.spring6restmvc.entities;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
@@ -17,19 +17,24 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "customer_name_idx", columnList = "customer_name, id"),
+        @Index(name = "customer_email_idx", columnList = "email, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Customer {
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @GenericGenerator(name = "UUID", strategy = "guru.springframework.spring6restmvc.entities.TimeOrderedUuidGenerator")
+    @Column(updatable = false, nullable = false)
     private UUID id;
     @Version
     private Integer version;
+    @Size(max = 255)
     private String customerName;
 
+    @Size(max = 255)
     @Column(length = 255)
     private String email;
     @CreationTimestamp
@@ -40,4 +45,18 @@ public class Customer {
     @Builder.Default
     @OneToMany(mappedBy = "customer")
     private Set<BeerOrder> beerOrders = new HashSet<>();
+
+    /**
+     * Emails are stored lower-cased so case-insensitive prefix filters can compare the raw,
+     * indexed column.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        email = normalizeEmail(email);
+    }
 }
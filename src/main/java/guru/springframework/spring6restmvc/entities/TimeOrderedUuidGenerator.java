@@ -0,0 +1,55 @@
+package guru.springframework.spring6restmvc.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs: a 48 bit millisecond timestamp followed by random bits.
+ * <p>
+ * Ids created later sort later, so inserts land at the end of the primary key index
+ * instead of splitting random pages. Within one millisecond a 12 bit counter keeps the
+ * ids handed out by this JVM strictly increasing.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long millis;
+        int counter;
+
+        synchronized (TimeOrderedUuidGenerator.class) {
+            long now = System.currentTimeMillis();
+
+            if (now > lastMillis) {
+                lastMillis = now;
+                // start low in the range so a busy millisecond has room to count up
+                sequence = RANDOM.nextInt(MAX_SEQUENCE / 2);
+            } else if (++sequence > MAX_SEQUENCE) {
+                // clock went backwards or the counter ran out: borrow the next millisecond
+                lastMillis++;
+                sequence = 0;
+            }
+
+            millis = lastMillis;
+            counter = sequence;
+        }
+
+        long mostSigBits = (millis << 16) | 0x7000L | counter;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,27 @@
+package guru.springframework.spring6restmvc.events;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.util.UUID;
+
+public record BeerChangedEvent(UUID beerId, String beerName, BeerStyle beerStyle, boolean deleted) {
+
+    public static BeerChangedEvent saved(UUID beerId, String beerName, BeerStyle beerStyle) {
+        return new BeerChangedEvent(beerId, beerName, beerStyle, false);
+    }
+
+    /**
+     * A change that leaves name and style alone, such as a restock or a new price.
+     */
+    public static BeerChangedEvent updated(UUID beerId) {
+        return new BeerChangedEvent(beerId, null, null, false);
+    }
+
+    public static BeerChangedEvent deleted(UUID beerId) {
+        return new BeerChangedEvent(beerId, null, null, true);
+    }
+
+    public boolean changesName() {
+        return deleted || beerName != null;
+    }
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchItemResultDTO {
+    private Integer index;
+    private UUID id;
+    private Integer version;
+    private Integer status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+}
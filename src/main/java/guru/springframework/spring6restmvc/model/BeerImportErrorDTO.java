@@ -0,0 +1,12 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BeerImportErrorDTO {
+    private Long line;
+    private Integer row;
+    private String message;
+}
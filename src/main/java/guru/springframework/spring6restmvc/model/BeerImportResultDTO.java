@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerImportResultDTO {
+    private Integer imported;
+    private Integer skipped;
+    private Integer rejected;
+    private List<BeerImportErrorDTO> errors;
+}
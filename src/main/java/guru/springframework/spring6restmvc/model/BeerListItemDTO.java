@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A row of the listing projection. Inventory hidden by {@code showInventory=false} is left
+ * out of the JSON rather than written as null; every other response keeps the full BeerDTO shape.
+ */
+public class BeerListItemDTO extends BeerDTO {
+
+    public BeerListItemDTO(UUID id, Integer version, String beerName, BeerStyle beerStyle, String upc,
+                           Integer quantityOnHand, BigDecimal price, LocalDateTime createdDate,
+                           LocalDateTime updatedDate) {
+        super(id, version, beerName, beerStyle, upc, quantityOnHand, price, createdDate, updatedDate);
+    }
+
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getQuantityOnHand() {
+        return super.getQuantityOnHand();
+    }
+}
@@ -0,0 +1,25 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderCreateDTO {
+    @NotNull
+    private UUID customerId;
+    private String customerRef;
+    @NotEmpty
+    @Valid
+    private List<BeerOrderLineCreateDTO> beerOrderLines;
+}
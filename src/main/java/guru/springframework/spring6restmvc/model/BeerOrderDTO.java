@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderDTO {
+    private UUID id;
+    private Long version;
+    private String customerRef;
+    private UUID customerId;
+    private String customerName;
+    private String trackingNumber;
+    private List<BeerOrderLineDTO> beerOrderLines;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderLineDTO {
+    private UUID id;
+    private Long version;
+    private UUID beerId;
+    private String beerName;
+    private BeerStyle beerStyle;
+    private Integer orderQuantity;
+    private Integer quantityAllocated;
+}
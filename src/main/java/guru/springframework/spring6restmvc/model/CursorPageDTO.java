@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor;
+}
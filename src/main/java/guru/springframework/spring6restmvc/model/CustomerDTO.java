@@ -1,17 +1,22 @@
 package guru.springframework.spring6restmvc.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CustomerDTO {
     private UUID id;
     private Integer version;
     private String customerName;
+    private String email;
     private LocalDateTime createdDate;
     private LocalDateTime lastModifiedDate;
 }
@@ -0,0 +1,24 @@
+package guru.springframework.spring6restmvc.model;
+
+import java.util.function.Function;
+
+public enum CustomerSortField {
+    CUSTOMER_NAME("customerName", CustomerDTO::getCustomerName),
+    EMAIL("email", CustomerDTO::getEmail);
+
+    private final String propertyName;
+    private final Function<CustomerDTO, String> keyExtractor;
+
+    CustomerSortField(String propertyName, Function<CustomerDTO, String> keyExtractor) {
+        this.propertyName = propertyName;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public String keyOf(CustomerDTO customerDTO) {
+        return keyExtractor.apply(customerDTO);
+    }
+}
@@ -0,0 +1,33 @@
+package guru.springframework.spring6restmvc.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public record SeekCursor(String key, UUID id) {
+
+    private static final char SEPARATOR = ':';
+
+    public static SeekCursor of(String key, UUID id) {
+        return new SeekCursor(key, id);
+    }
+
+    public String encode() {
+        // a null key (nullable sort column) is written as the bare id
+        String raw = key == null ? id.toString() : id.toString() + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SeekCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separatorIndex = raw.indexOf(SEPARATOR);
+
+        if (separatorIndex < 0) {
+            return new SeekCursor(null, UUID.fromString(raw));
+        }
+
+        return new SeekCursor(raw.substring(separatorIndex + 1),
+                UUID.fromString(raw.substring(0, separatorIndex)));
+    }
+}
@@ -0,0 +1,11 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import java.time.LocalDateTime;
+
+public interface BeerCatalogStateView {
+    Long getBeerCount();
+
+    Long getVersionSum();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,13 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.util.UUID;
+
+public interface BeerNameView {
+    UUID getId();
+
+    String getBeerName();
+
+    BeerStyle getBeerStyle();
+}
@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.entities.BeerOrderLine;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BeerOrderLineRepository extends JpaRepository<BeerOrderLine, UUID> {
+
+    // locked so two nodes flushing at once can't both apply the same lines
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l.id as id, l.beer.id as beerId, l.quantityAllocated as quantityAllocated "
+            + "from BeerOrderLine l where l.inventoryFlushed = false order by l.id")
+    List<UnflushedAllocationView> findUnflushedAllocations(Pageable pageable);
+
+    @Modifying
+    @Query("update BeerOrderLine l set l.inventoryFlushed = true where l.id in :ids")
+    int markInventoryFlushed(Collection<UUID> ids);
+}
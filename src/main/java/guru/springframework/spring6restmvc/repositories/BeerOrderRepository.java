@@ -1,9 +1,26 @@
 package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.entities.BeerOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, UUID> {
+
+    // paging on ids first keeps the collection fetch out of the paged query
+    @Query(value = "select o.id from BeerOrder o", countQuery = "select count(o) from BeerOrder o")
+    Page<UUID> findPageOfIds(Pageable pageable);
+
+    @EntityGraph(BeerOrder.DETAIL_GRAPH)
+    List<BeerOrder> findAllByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(BeerOrder.DETAIL_GRAPH)
+    Optional<BeerOrder> findDetailedById(UUID id);
 }
@@ -2,16 +2,86 @@ package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, UUID> {
+public interface BeerRepository extends JpaRepository<Beer, UUID>, BeerRepositoryCustom {
 
     Page<Beer> findAllByBeerStyleAndBeerNameIsLikeIgnoreCase(BeerStyle beerStyle, String beerName, Pageable pageable);
     Page<Beer> findAllByBeerNameIsLikeIgnoreCase(String beerName, Pageable pageable);
 
     Page<Beer> findAllByBeerStyle(BeerStyle beerStyle, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Beer b")
+    Stream<Beer> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id as id, b.beerName as beerName, b.beerStyle as beerStyle from Beer b")
+    Stream<BeerNameView> streamAllNames();
+
+    /**
+     * Takes {@code quantity} off the beer's stock only if that much is on hand, in one
+     * statement, so concurrent orders queue on the row lock instead of failing version checks.
+     * Returns 0 when the stock is short or the beer does not exist.
+     */
+    @Modifying
+    @Query("update Beer b set b.quantityOnHand = b.quantityOnHand - :quantity, b.version = b.version + 1 "
+            + "where b.id = :beerId and b.quantityOnHand >= :quantity")
+    int allocateInventory(UUID beerId, int quantity);
+
+    /**
+     * Takes committed allocations off the stock, stopping at zero: a restock below what was
+     * already sold must not leave a negative count behind.
+     */
+    @Modifying
+    @Query("update Beer b set b.quantityOnHand = greatest(b.quantityOnHand - :quantity, 0), "
+            + "b.version = b.version + 1 where b.id = :beerId")
+    int applyAllocation(UUID beerId, int quantity);
+
+    @Query("select b.id as id, b.quantityOnHand as quantityOnHand from Beer b where b.id in :ids")
+    List<BeerStockView> findStockByIdIn(Collection<UUID> ids);
+
+    /**
+     * Stock on hand less what committed orders hold in the inventory ledger but haven't
+     * flushed to the beer yet.
+     */
+    @Query("select coalesce(b.quantityOnHand, 0) - coalesce((select sum(l.quantityAllocated) from BeerOrderLine l "
+            + "where l.beer = b and l.inventoryFlushed = false), 0) from Beer b where b.id = :beerId")
+    Long findUnallocatedInventory(UUID beerId);
+
+    @Query("select b.id as id, b.version as version from Beer b where b.id in :ids")
+    List<BeerVersionView> findVersionsByIdIn(Collection<UUID> ids);
+
+    @Query("select b.id as id, b.beerName as beerName, b.beerStyle as beerStyle from Beer b where b.id = :id")
+    Optional<BeerNameView> findNameById(UUID id);
+
+    @Query("select b.version from Beer b where b.id = :id")
+    Optional<Integer> findVersionById(UUID id);
+
+    /**
+     * Changes whenever a beer is added, removed or updated, including the bulk inventory
+     * updates that don't touch {@code updatedDate}. Cached until the beer table is written.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BeerRepositoryCustomImpl.LISTING_CACHE_REGION)
+    })
+    @Query("select count(b) as beerCount, sum(b.version) as versionSum, max(b.updatedDate) as lastUpdated from Beer b")
+    BeerCatalogStateView findCatalogState();
 }
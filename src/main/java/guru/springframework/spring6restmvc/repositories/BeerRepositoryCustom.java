@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface BeerRepositoryCustom {
+
+    char LIKE_ESCAPE = LikePatterns.ESCAPE;
+
+    /**
+     * {@code beerNamePattern} is a LIKE pattern; a literal {@code %}, {@code _} or the escape
+     * character itself must be prefixed with {@link #LIKE_ESCAPE}.
+     */
+    Page<BeerDTO> findBeerDtos(String beerNamePattern, BeerStyle beerStyle, boolean includeInventory, Pageable pageable);
+
+    /**
+     * The beers among {@code ids}, typically the matches of a name index lookup, ordered and
+     * paged by the database exactly as {@link #findBeerDtos} would.
+     */
+    Page<BeerDTO> findBeerDtosIn(Collection<UUID> ids, boolean includeInventory, Pageable pageable);
+
+    Slice<BeerDTO> findBeerDtosAfter(String beerNamePattern, BeerStyle beerStyle, boolean includeInventory,
+                                     SeekCursor after, int limit);
+
+    Slice<BeerDTO> findBeerDtosInAfter(Collection<UUID> ids, boolean includeInventory, SeekCursor after, int limit);
+
+    List<BeerDTO> findBeerDtosByIds(Collection<UUID> ids, boolean includeInventory);
+
+    /**
+     * Sets the given attributes in one update, only while the beer is at {@code expectedVersion}
+     * unless that is null. Returns the number of rows changed.
+     */
+    int updateBeer(UUID beerId, Integer expectedVersion, Map<String, Object> values);
+}
@@ -0,0 +1,206 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerListItemDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+public class BeerRepositoryCustomImpl implements BeerRepositoryCustom {
+
+    public static final String LISTING_CACHE_REGION = "beer-listings";
+
+    private static final Sort SEEK_SORT = Sort.by(Sort.Order.asc("beerName"), Sort.Order.asc("id"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BeerDTO> findBeerDtos(String beerNamePattern, BeerStyle beerStyle, boolean includeInventory,
+                                      Pageable pageable) {
+        return findPage(beerNamePattern, beerStyle, null, includeInventory, pageable,
+                () -> count(beerNamePattern, beerStyle));
+    }
+
+    @Override
+    public Page<BeerDTO> findBeerDtosIn(Collection<UUID> ids, boolean includeInventory, Pageable pageable) {
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return findPage(null, null, ids, includeInventory, pageable, ids::size);
+    }
+
+    @Override
+    public Slice<BeerDTO> findBeerDtosAfter(String beerNamePattern, BeerStyle beerStyle, boolean includeInventory,
+                                            SeekCursor after, int limit) {
+        return findSlice(beerNamePattern, beerStyle, null, includeInventory, after, limit);
+    }
+
+    @Override
+    public Slice<BeerDTO> findBeerDtosInAfter(Collection<UUID> ids, boolean includeInventory, SeekCursor after,
+                                              int limit) {
+        if (ids.isEmpty()) {
+            return new SliceImpl<>(List.of(), PageRequest.of(0, limit, SEEK_SORT), false);
+        }
+        return findSlice(null, null, ids, includeInventory, after, limit);
+    }
+
+    private Page<BeerDTO> findPage(String beerNamePattern, BeerStyle beerStyle, Collection<UUID> ids,
+                                   boolean includeInventory, Pageable pageable, LongSupplier total) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDTO> query = cb.createQuery(BeerDTO.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        query.select(beerDtoSelection(cb, beer, includeInventory))
+                .where(filters(cb, beer, beerNamePattern, beerStyle, ids).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), beer, cb));
+
+        List<BeerDTO> content = cacheIfUnfiltered(entityManager.createQuery(query), beerNamePattern, ids)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, total);
+    }
+
+    private Slice<BeerDTO> findSlice(String beerNamePattern, BeerStyle beerStyle, Collection<UUID> ids,
+                                     boolean includeInventory, SeekCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDTO> query = cb.createQuery(BeerDTO.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        List<Predicate> predicates = filters(cb, beer, beerNamePattern, beerStyle, ids);
+
+        if (after != null) {
+            Path<String> beerName = beer.get("beerName");
+            Path<UUID> id = beer.get("id");
+            predicates.add(cb.or(
+                    cb.greaterThan(beerName, after.key()),
+                    cb.and(cb.equal(beerName, after.key()), cb.greaterThan(id, after.id()))));
+        }
+
+        query.select(beerDtoSelection(cb, beer, includeInventory))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(SEEK_SORT, beer, cb));
+
+        // one extra row tells us whether another slice exists without a count query
+        List<BeerDTO> content = cacheIfUnfiltered(entityManager.createQuery(query), beerNamePattern, ids)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = content.subList(0, limit);
+        }
+
+        return new SliceImpl<>(content, PageRequest.of(0, limit, SEEK_SORT), hasNext);
+    }
+
+    @Override
+    public List<BeerDTO> findBeerDtosByIds(Collection<UUID> ids, boolean includeInventory) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDTO> query = cb.createQuery(BeerDTO.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        query.select(beerDtoSelection(cb, beer, includeInventory))
+                .where(beer.get("id").in(ids));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int updateBeer(UUID beerId, Integer expectedVersion, Map<String, Object> values) {
+        return VersionedUpdates.update(entityManager, Beer.class, "updatedDate", beerId, expectedVersion, values);
+    }
+
+    private long count(String beerNamePattern, BeerStyle beerStyle) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        query.select(cb.count(beer))
+                .where(filters(cb, beer, beerNamePattern, beerStyle, null).toArray(Predicate[]::new));
+
+        return cacheIfUnfiltered(entityManager.createQuery(query), beerNamePattern, null).getSingleResult();
+    }
+
+    /**
+     * Style and unfiltered listings come from a small, fixed set of queries, so their results
+     * are worth keeping in the query cache; Hibernate drops them whenever the beer table is
+     * written. Name patterns and index matches are left out, there are too many of them.
+     */
+    private static <T> TypedQuery<T> cacheIfUnfiltered(TypedQuery<T> query, String beerNamePattern,
+                                                       Collection<UUID> ids) {
+        if (beerNamePattern == null && ids == null) {
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, LISTING_CACHE_REGION);
+        }
+        return query;
+    }
+
+    private CompoundSelection<BeerListItemDTO> beerDtoSelection(CriteriaBuilder cb, Root<Beer> beer, boolean includeInventory) {
+        // hidden inventory is never read from the table, the constructor just gets a null
+        Expression<Integer> quantityOnHand = includeInventory
+                ? beer.get("quantityOnHand")
+                : cb.nullLiteral(Integer.class);
+
+        return cb.construct(BeerListItemDTO.class,
+                beer.get("id"),
+                beer.get("version"),
+                beer.get("beerName"),
+                beer.get("beerStyle"),
+                beer.get("upc"),
+                quantityOnHand,
+                beer.get("price"),
+                beer.get("createdDate"),
+                beer.get("updatedDate"));
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Beer> beer, String beerNamePattern, BeerStyle beerStyle,
+                                    Collection<UUID> ids) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (StringUtils.hasText(beerNamePattern)) {
+            predicates.add(cb.like(cb.upper(beer.get("beerName")), beerNamePattern.toUpperCase(), LIKE_ESCAPE));
+        }
+        if (ids != null) {
+            predicates.add(beer.get("id").in(ids));
+        }
+        if (beerStyle != null) {
+            predicates.add(cb.equal(beer.get("beerStyle"), beerStyle));
+        }
+
+        return predicates;
+    }
+}
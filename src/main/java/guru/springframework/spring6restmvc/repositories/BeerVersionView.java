@@ -0,0 +1,9 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import java.util.UUID;
+
+public interface BeerVersionView {
+    UUID getId();
+
+    Integer getVersion();
+}
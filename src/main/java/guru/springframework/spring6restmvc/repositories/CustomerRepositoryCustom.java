@@ -0,0 +1,21 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface CustomerRepositoryCustom {
+
+    Slice<CustomerDTO> findCustomerDtosAfter(String customerNamePattern, String emailPattern,
+                                             CustomerSortField sortField, SeekCursor after, int limit);
+
+    /**
+     * Sets the given attributes in one update, only while the customer is at {@code expectedVersion}
+     * unless that is null. Returns the number of rows changed.
+     */
+    int updateCustomer(UUID customerId, Integer expectedVersion, Map<String, Object> values);
+}
@@ -0,0 +1,95 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<CustomerDTO> findCustomerDtosAfter(String customerNamePattern, String emailPattern,
+                                                    CustomerSortField sortField, SeekCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerDTO> query = cb.createQuery(CustomerDTO.class);
+        Root<Customer> customer = query.from(Customer.class);
+
+        Path<String> sortKey = customer.get(sortField.getPropertyName());
+        Path<UUID> id = customer.get("id");
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (StringUtils.hasText(customerNamePattern)) {
+            predicates.add(cb.like(cb.upper(customer.get("customerName")), customerNamePattern.toUpperCase(),
+                    LikePatterns.ESCAPE));
+        }
+        if (StringUtils.hasText(emailPattern)) {
+            // stored lower-cased, so the raw column can use customer_email_idx
+            predicates.add(cb.like(customer.get("email"), Customer.normalizeEmail(emailPattern), LikePatterns.ESCAPE));
+        }
+        if (after != null) {
+            predicates.add(after(cb, sortKey, id, after));
+        }
+
+        query.select(cb.construct(CustomerDTO.class,
+                        id,
+                        customer.get("version"),
+                        customer.get("customerName"),
+                        customer.get("email"),
+                        customer.get("createdDate"),
+                        customer.get("lastModifiedDate")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(sortKey), cb.asc(id));
+
+        // one extra row tells us whether another slice exists without a count query
+        List<CustomerDTO> content = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = content.subList(0, limit);
+        }
+
+        Sort sort = Sort.by(Sort.Order.asc(sortField.getPropertyName()), Sort.Order.asc("id"));
+        return new SliceImpl<>(content, PageRequest.of(0, limit, sort), hasNext);
+    }
+
+    @Override
+    public int updateCustomer(UUID customerId, Integer expectedVersion, Map<String, Object> values) {
+        return VersionedUpdates.update(entityManager, Customer.class, "lastModifiedDate",
+                customerId, expectedVersion, values);
+    }
+
+    private Predicate after(CriteriaBuilder cb, Path<String> sortKey, Path<UUID> id, SeekCursor cursor) {
+        // nulls sort first on both MySQL and H2, so a null key is followed by every non-null one
+        if (cursor.key() == null) {
+            return cb.or(
+                    cb.and(cb.isNull(sortKey), cb.greaterThan(id, cursor.id())),
+                    cb.isNotNull(sortKey));
+        }
+
+        return cb.or(
+                cb.greaterThan(sortKey, cursor.key()),
+                cb.and(cb.equal(sortKey, cursor.key()), cb.greaterThan(id, cursor.id())));
+    }
+}
@@ -0,0 +1,28 @@
+package guru.springframework.spring6restmvc.repositories;
+
+/**
+ * Builds LIKE patterns from user input, with {@code %}, {@code _} and the escape character
+ * itself matched literally. Queries must declare {@link #ESCAPE} as their escape character.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '!';
+
+    private LikePatterns() {
+    }
+
+    public static String contains(String term) {
+        return "%" + escape(term) + "%";
+    }
+
+    public static String startsWith(String term) {
+        return escape(term) + "%";
+    }
+
+    private static String escape(String term) {
+        String escape = String.valueOf(ESCAPE);
+        return term.replace(escape, escape + escape)
+                .replace("%", escape + "%")
+                .replace("_", escape + "_");
+    }
+}
@@ -0,0 +1,11 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import java.util.UUID;
+
+public interface UnflushedAllocationView {
+    UUID getId();
+
+    UUID getBeerId();
+
+    Integer getQuantityAllocated();
+}
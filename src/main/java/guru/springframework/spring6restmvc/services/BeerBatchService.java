@@ -0,0 +1,14 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchItemResultDTO;
+
+import java.util.List;
+
+public interface BeerBatchService {
+
+    /**
+     * Applies the items in order and returns one result per item, at the same position.
+     */
+    List<BeerBatchItemResultDTO> process(List<BeerBatchItemDTO> items);
+}
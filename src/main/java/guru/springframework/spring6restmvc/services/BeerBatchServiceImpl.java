@@ -0,0 +1,226 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchAction;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchItemResultDTO;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerBatchServiceImpl implements BeerBatchService {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final BeerDtoCache beerDtoCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    private record Pending(int index, Beer beer, HttpStatus status) {
+    }
+
+    @Override
+    public List<BeerBatchItemResultDTO> process(List<BeerBatchItemDTO> items) {
+        BeerBatchItemResultDTO[] results = new BeerBatchItemResultDTO[items.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Map<UUID, Integer> firstIndexById = new HashMap<>();
+
+        for (int index = 0; index < items.size(); index++) {
+            String problem = validate(items.get(index));
+
+            // two items for one beer would both land on the same managed instance, the later silently winning
+            UUID id = items.get(index).getId();
+            if (problem == null && id != null) {
+                Integer first = firstIndexById.putIfAbsent(id, index);
+                if (first != null) {
+                    problem = "id already appears at index " + first;
+                }
+            }
+
+            if (problem != null) {
+                results[index] = result(index, items.get(index).getId(), HttpStatus.BAD_REQUEST, problem);
+            } else {
+                accepted.add(index);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+
+            try {
+                complete(transactionTemplate.execute(status -> applyChunk(items, chunk, results)), results);
+            } catch (RuntimeException e) {
+                // one bad item rolls back its whole chunk, so replay the chunk item by item to find it
+                log.debug("Batch chunk failed, retrying its " + chunk.size() + " items one at a time", e);
+                chunk.forEach(index -> applySingle(items, index, results));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void applySingle(List<BeerBatchItemDTO> items, int index, BeerBatchItemResultDTO[] results) {
+        try {
+            complete(transactionTemplate.execute(status -> applyChunk(items, List.of(index), results)), results);
+        } catch (RuntimeException e) {
+            results[index] = result(index, items.get(index).getId(), statusFor(e), e.getMessage());
+        }
+    }
+
+    private List<Pending> applyChunk(List<BeerBatchItemDTO> items, List<Integer> chunk,
+                                     BeerBatchItemResultDTO[] results) {
+        Set<UUID> ids = chunk.stream()
+                .map(index -> items.get(index).getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // one select ... where id in (...) instead of a findById per item
+        Map<UUID, Beer> existing = beerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        List<Pending> saves = new ArrayList<>();
+        List<Pending> deletes = new ArrayList<>();
+
+        for (int index : chunk) {
+            BeerBatchItemDTO item = items.get(index);
+            Beer found = item.getId() == null ? null : existing.get(item.getId());
+
+            if (item.getId() != null && found == null) {
+                results[index] = result(index, item.getId(), HttpStatus.NOT_FOUND, "Beer not found");
+            } else if (item.getAction() == BeerBatchAction.DELETE) {
+                deletes.add(new Pending(index, found, HttpStatus.NO_CONTENT));
+            } else if (found == null) {
+                BeerDTO beerDTO = item.getBeer().toBuilder().id(null).version(null).build();
+                saves.add(new Pending(index, beerMapper.beerDtoToBeer(beerDTO), HttpStatus.CREATED));
+            } else if (isStale(item.getBeer(), found)) {
+                results[index] = result(index, item.getId(), HttpStatus.CONFLICT,
+                        "Beer is at version " + found.getVersion());
+                results[index].setVersion(found.getVersion());
+            } else {
+                copyInto(item.getBeer(), found);
+                saves.add(new Pending(index, found, HttpStatus.OK));
+            }
+        }
+
+        beerRepository.saveAll(saves.stream().map(Pending::beer).toList());
+        beerRepository.deleteAll(deletes.stream().map(Pending::beer).toList());
+        beerRepository.flush();
+
+        for (Pending save : saves) {
+            Beer beer = save.beer();
+            eventPublisher.publishEvent(BeerChangedEvent.saved(beer.getId(), beer.getBeerName(), beer.getBeerStyle()));
+        }
+        for (Pending delete : deletes) {
+            eventPublisher.publishEvent(BeerChangedEvent.deleted(delete.beer().getId()));
+        }
+
+        List<Pending> applied = new ArrayList<>(saves);
+        applied.addAll(deletes);
+        return applied;
+    }
+
+    // runs after commit, so a rolled back chunk never bumps the cache's minimum version
+    private void complete(List<Pending> applied, BeerBatchItemResultDTO[] results) {
+        for (Pending pending : applied) {
+            Beer beer = pending.beer();
+
+            if (pending.status() == HttpStatus.NO_CONTENT) {
+                beerDtoCache.invalidate(beer.getId());
+            } else {
+                beerDtoCache.invalidate(beer.getId(), beer.getVersion());
+            }
+
+            results[pending.index()] = result(pending.index(), beer.getId(), pending.status(), null);
+            if (pending.status() != HttpStatus.NO_CONTENT) {
+                results[pending.index()].setVersion(beer.getVersion());
+            }
+        }
+    }
+
+    private void copyInto(BeerDTO beerDTO, Beer beer) {
+        beer.setBeerName(beerDTO.getBeerName());
+        beer.setBeerStyle(beerDTO.getBeerStyle());
+        beer.setUpc(beerDTO.getUpc());
+        beer.setPrice(beerDTO.getPrice());
+        beer.setQuantityOnHand(beerDTO.getQuantityOnHand());
+    }
+
+    // Hibernate checks the version it loaded, not one set on the managed entity, so compare here;
+    // a sync job that doesn't track versions sends none and gets last-write-wins
+    private static boolean isStale(BeerDTO beerDTO, Beer beer) {
+        return beerDTO.getVersion() != null && !beerDTO.getVersion().equals(beer.getVersion());
+    }
+
+    private String validate(BeerBatchItemDTO item) {
+        if (item.getAction() == null) {
+            return "action is required";
+        }
+        if (item.getAction() == BeerBatchAction.DELETE) {
+            return item.getId() == null ? "id is required for DELETE" : null;
+        }
+        if (item.getBeer() == null) {
+            return "beer is required for UPSERT";
+        }
+
+        Set<ConstraintViolation<BeerDTO>> violations = validator.validate(item.getBeer());
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static HttpStatus statusFor(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof DataIntegrityViolationException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (e instanceof TransactionSystemException) {
+            // entity validation on flush, e.g. a name longer than the column
+            return HttpStatus.BAD_REQUEST;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static BeerBatchItemResultDTO result(int index, UUID id, HttpStatus status, String message) {
+        return BeerBatchItemResultDTO.builder()
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+}
@@ -1,10 +1,27 @@
 package guru.springframework.spring6restmvc.services;
 
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerStyle;
 
 import java.io.File;
+import java.io.Reader;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BeerCsvService {
     List<BeerCSVRecord> convertCSV(File csvFile);
+
+    Iterator<BeerCSVRecord> iterateCSV(Reader reader);
+
+    /**
+     * Rows that can't be bound are handed to {@code rowErrors} and skipped instead of ending the iteration.
+     */
+    Iterator<BeerCSVRecord> iterateCSV(Reader reader, Consumer<CsvException> rowErrors);
+
+    BeerStyle mapBeerStyle(String style);
+
+    Beer csvRecordToBeer(BeerCSVRecord beerCSVRecord);
 }
@@ -1,13 +1,21 @@
 package guru.springframework.spring6restmvc.services;
 
 import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class BeerCsvServiceImpl implements BeerCsvService {
@@ -22,4 +30,59 @@ public class BeerCsvServiceImpl implements BeerCsvService {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public Iterator<BeerCSVRecord> iterateCSV(Reader reader) {
+        return new CsvToBeanBuilder<BeerCSVRecord>(reader)
+                .withType(BeerCSVRecord.class)
+                .build().iterator();
+    }
+
+    @Override
+    public Iterator<BeerCSVRecord> iterateCSV(Reader reader, Consumer<CsvException> rowErrors) {
+        return new CsvToBeanBuilder<BeerCSVRecord>(reader)
+                .withType(BeerCSVRecord.class)
+                .withExceptionHandler(e -> {
+                    rowErrors.accept(e);
+                    return null;
+                })
+                .build().iterator();
+    }
+
+    @Override
+    public BeerStyle mapBeerStyle(String style) {
+        if (style == null) {
+            return BeerStyle.PILSNER;
+        }
+
+        for (BeerStyle beerStyle : BeerStyle.values()) {
+            if (beerStyle.name().equals(style)) {
+                return beerStyle;
+            }
+        }
+
+        return switch (style) {
+            case "American Pale Lager" -> BeerStyle.LAGER;
+            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
+                    BeerStyle.ALE;
+            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
+            case "American Porter" -> BeerStyle.PORTER;
+            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
+            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
+            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
+            case "English Pale Ale" -> BeerStyle.PALE_ALE;
+            default -> BeerStyle.PILSNER;
+        };
+    }
+
+    @Override
+    public Beer csvRecordToBeer(BeerCSVRecord beerCSVRecord) {
+        return Beer.builder()
+                .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
+                .beerStyle(mapBeerStyle(beerCSVRecord.getStyle()))
+                .price(BigDecimal.TEN)
+                .upc(beerCSVRecord.getRow().toString())
+                .quantityOnHand(beerCSVRecord.getCount())
+                .build();
+    }
 }
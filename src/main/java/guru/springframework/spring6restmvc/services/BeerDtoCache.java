@@ -0,0 +1,124 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of {@link BeerDTO}s keyed by beer id.
+ * <p>
+ * Writers record the version they produced; any load carrying an older version
+ * is refused, so a slow reader can't put back a row that was just invalidated. Writers that
+ * don't learn their version {@link #evict} instead, which refuses any load that started before
+ * it, as told by the {@link #loadTicket()} the reader took.
+ */
+@Component
+public class BeerDtoCache {
+
+    public static final String CACHE_NAME = "beerCache";
+
+    private final Cache<UUID, BeerDTO> beers;
+    private final Cache<UUID, Integer> minimumVersions;
+    private final Cache<UUID, Long> evictedAt;
+    private final AtomicLong evictionClock = new AtomicLong();
+
+    public BeerDtoCache(@Value("${app.cache.beer.maximum-size:10000}") long maximumSize,
+                        @Value("${app.cache.beer.expire-after-write:10m}") Duration expireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.beers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, beers, CACHE_NAME);
+    }
+
+    public Optional<BeerDTO> get(UUID beerId) {
+        return Optional.ofNullable(beers.getIfPresent(beerId))
+                .map(cached -> cached.toBuilder().build());
+    }
+
+    /**
+     * Take before loading a beer and hand to {@link #put(BeerDTO, long)}.
+     */
+    public long loadTicket() {
+        return evictionClock.get();
+    }
+
+    public void put(BeerDTO beerDTO) {
+        put(beerDTO, Long.MAX_VALUE);
+    }
+
+    public void put(BeerDTO beerDTO, long loadTicket) {
+        BeerDTO copy = beerDTO.toBuilder().build();
+
+        beers.asMap().compute(beerDTO.getId(), (id, cached) -> {
+            Long evicted = evictedAt.getIfPresent(id);
+            if (evicted != null && evicted > loadTicket) {
+                return cached;
+            }
+
+            Integer minimumVersion = minimumVersions.getIfPresent(id);
+
+            if (minimumVersion != null && versionOf(copy) < minimumVersion) {
+                return cached;
+            }
+            if (cached != null && versionOf(cached) > versionOf(copy)) {
+                return cached;
+            }
+            return copy;
+        });
+    }
+
+    public void invalidate(UUID beerId, Integer newVersion) {
+        beers.asMap().compute(beerId, (id, cached) -> {
+            minimumVersions.asMap().merge(id, newVersion == null ? 0 : newVersion, Math::max);
+            return null;
+        });
+    }
+
+    /**
+     * For writes that don't learn the version they produced: drops the entry and refuses
+     * anything that isn't newer than the version last cached, or that was loaded on a ticket
+     * taken before now.
+     */
+    public void evict(UUID beerId) {
+        beers.asMap().compute(beerId, (id, cached) -> {
+            evictedAt.put(id, evictionClock.incrementAndGet());
+            if (cached != null) {
+                minimumVersions.asMap().merge(id, versionOf(cached) + 1, Math::max);
+            }
+            return null;
+        });
+    }
+
+    public void invalidate(UUID beerId) {
+        invalidate(beerId, Integer.MAX_VALUE);
+    }
+
+    public long estimatedSize() {
+        return beers.estimatedSize();
+    }
+
+    private static int versionOf(BeerDTO beerDTO) {
+        return beerDTO.getVersion() == null ? -1 : beerDTO.getVersion();
+    }
+}
@@ -0,0 +1,20 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BeerExportService {
+
+    /**
+     * Every beer with every field, one {@code BeerDTO} per line.
+     */
+    void exportNdjson(OutputStream outputStream) throws IOException;
+
+    /**
+     * A lossy subset in the layout of the imported brewery dataset: row number, name, style and
+     * quantity only. That layout has no columns for the beer id, price or upc, so the rows can't
+     * be tied back to catalog beers, and importing the file again creates new beers rather than
+     * updating these. Use {@link #exportNdjson} for a complete export.
+     */
+    void exportCsv(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,92 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.bean.StatefulBeanToCsv;
+import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BeerExportServiceImpl implements BeerExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportNdjson(OutputStream outputStream) throws IOException {
+        try (Stream<Beer> beers = beerRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Beer> iterator = beers.iterator();
+            int written = 0;
+
+            while (iterator.hasNext()) {
+                Beer beer = iterator.next();
+                generator.writeObject(beerMapper.beerToBeerDto(beer));
+                generator.writeRaw('\n');
+                entityManager.detach(beer);
+
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            StatefulBeanToCsv<BeerCSVRecord> beanToCsv = new StatefulBeanToCsvBuilder<BeerCSVRecord>(writer)
+                    .build();
+
+            Iterator<Beer> iterator = beers.iterator();
+            int row = 0;
+
+            while (iterator.hasNext()) {
+                Beer beer = iterator.next();
+                beanToCsv.write(toCsvRecord(++row, beer));
+                entityManager.detach(beer);
+            }
+        } catch (CsvException e) {
+            throw new IOException(e);
+        }
+
+        writer.flush();
+    }
+
+    private BeerCSVRecord toCsvRecord(int row, Beer beer) {
+        BeerCSVRecord beerCSVRecord = new BeerCSVRecord();
+        beerCSVRecord.setRow(row);
+        beerCSVRecord.setCount(beer.getQuantityOnHand());
+        beerCSVRecord.setBeer(beer.getBeerName());
+        beerCSVRecord.setStyle(beer.getBeerStyle().name());
+        return beerCSVRecord;
+    }
+}
@@ -0,0 +1,135 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerImportErrorDTO;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerImportServiceImpl implements BeerImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BeerCsvService beerCsvService;
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public BeerImportResultDTO importBeers(InputStream csvInputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csvInputStream, StandardCharsets.UTF_8));
+        Rejections rejections = new Rejections();
+        Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader,
+                e -> rejections.add(e.getLineNumber(), null, e.getMessage()));
+
+        List<Beer> chunk = new ArrayList<>(chunkSize);
+        int imported = 0;
+        int skipped = 0;
+
+        BeerCSVRecord beerCSVRecord;
+        while ((beerCSVRecord = nextRecord(records, rejections)) != null) {
+            if (!StringUtils.hasText(beerCSVRecord.getBeer()) || beerCSVRecord.getRow() == null) {
+                skipped++;
+                continue;
+            }
+
+            // earlier chunks are already committed, so a row the database would refuse is rejected here
+            Beer beer = beerCsvService.csvRecordToBeer(beerCSVRecord);
+            Set<ConstraintViolation<Beer>> violations = validator.validate(beer);
+            if (!violations.isEmpty()) {
+                rejections.add(null, beerCSVRecord.getRow(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            chunk.add(beer);
+
+            if (chunk.size() >= chunkSize) {
+                imported += saveChunk(chunk);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            imported += saveChunk(chunk);
+        }
+
+        log.debug("Imported " + imported + " beers, skipped " + skipped + " records, rejected " + rejections.count);
+
+        return BeerImportResultDTO.builder()
+                .imported(imported)
+                .skipped(skipped)
+                .rejected(rejections.count)
+                .errors(rejections.reported)
+                .build();
+    }
+
+    private static BeerCSVRecord nextRecord(Iterator<BeerCSVRecord> records, Rejections rejections) {
+        try {
+            return records.hasNext() ? records.next() : null;
+        } catch (RuntimeException e) {
+            // an unterminated quote or a broken stream leaves nothing to resume from, keep what was read so far
+            rejections.add(null, null, "Stopped reading: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private int saveChunk(List<Beer> chunk) {
+        return transactionTemplate.execute(status -> {
+            beerRepository.saveAll(chunk);
+            chunk.forEach(beer -> eventPublisher.publishEvent(
+                    BeerChangedEvent.saved(beer.getId(), beer.getBeerName(), beer.getBeerStyle())));
+            // push the JDBC batch out and drop the managed copies so memory stays flat
+            entityManager.flush();
+            entityManager.clear();
+            return chunk.size();
+        });
+    }
+
+    private static class Rejections {
+        private final List<BeerImportErrorDTO> reported = new ArrayList<>();
+        private int count;
+
+        void add(Long line, Integer row, String message) {
+            count++;
+            if (reported.size() < MAX_REPORTED_ERRORS) {
+                reported.add(BeerImportErrorDTO.builder()
+                        .line(line)
+                        .row(row)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over beer names, answering case-insensitive substring lookups
+ * without a table scan.
+ * <p>
+ * Every name is split into overlapping three character grams. A lookup intersects the
+ * posting lists of the term's grams and then confirms each candidate with a plain
+ * {@code contains}, so results match {@code upper(beer_name) like upper('%term%')}.
+ * Terms shorter than three characters have no grams and fall back to scanning the names.
+ */
+public class BeerNameIndex {
+
+    public enum MatchType {
+        EXACT, PREFIX, WORD_PREFIX, INFIX
+    }
+
+    public record Match(UUID id, String beerName, BeerStyle beerStyle, MatchType matchType) {
+    }
+
+    public static final Comparator<Match> BY_NAME = Comparator.comparing(Match::beerName)
+            .thenComparing(match -> match.id().toString());
+
+    public static final Comparator<Match> BY_RELEVANCE = Comparator.comparing(Match::matchType)
+            .thenComparingInt(match -> match.beerName().length())
+            .thenComparing(BY_NAME);
+
+    private static final int GRAM_LENGTH = 3;
+
+    private record Doc(UUID id, String beerName, String normalizedName, BeerStyle beerStyle) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // doc ids only ever grow, so every posting list stays sorted; removed docs leave a null slot
+    private List<Doc> docs = new ArrayList<>();
+    private Map<UUID, Integer> docIds = new HashMap<>();
+    private Map<Long, IntList> postings = new HashMap<>();
+    private int removedCount;
+
+    public void put(UUID id, String beerName, BeerStyle beerStyle) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            if (beerName != null) {
+                addDoc(new Doc(id, beerName, normalize(beerName), beerStyle));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Terms shorter than a trigram can't use the posting lists, a lookup would scan every name.
+     */
+    public static boolean isIndexable(String term) {
+        return term != null && term.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * The ids of all beers whose name contains {@code term}, in no particular order.
+     */
+    public List<UUID> findIds(String term, BeerStyle beerStyle) {
+        return find(term, beerStyle).stream().map(Match::id).toList();
+    }
+
+    /**
+     * All beers whose name contains {@code term}, ordered by name then id.
+     */
+    public List<Match> findSortedByName(String term, BeerStyle beerStyle) {
+        List<Match> matches = find(term, beerStyle);
+        matches.sort(BY_NAME);
+        return matches;
+    }
+
+    /**
+     * The best {@code limit} matches: exact names first, then prefixes, then word prefixes,
+     * then anything else containing the term; shorter names win within each group.
+     */
+    public List<Match> findRanked(String term, BeerStyle beerStyle, int limit) {
+        PriorityQueue<Match> best = new PriorityQueue<>(BY_RELEVANCE.reversed());
+
+        for (Match match : find(term, beerStyle)) {
+            best.add(match);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RELEVANCE);
+        return ranked;
+    }
+
+    private List<Match> find(String term, BeerStyle beerStyle) {
+        String normalizedTerm = normalize(term);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (normalizedTerm.length() < GRAM_LENGTH) {
+                for (Doc doc : docs) {
+                    addIfMatches(matches, doc, normalizedTerm, beerStyle);
+                }
+                return matches;
+            }
+
+            IntList[] lists = postingsFor(normalizedTerm);
+            if (lists == null) {
+                return matches;
+            }
+
+            IntList candidates = lists[0];
+            for (int i = 0; i < candidates.size; i++) {
+                int docId = candidates.values[i];
+                if (containedInAll(lists, docId)) {
+                    addIfMatches(matches, docs.get(docId), normalizedTerm, beerStyle);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntList[] postingsFor(String normalizedTerm) {
+        long[] grams = Arrays.stream(grams(normalizedTerm)).distinct().toArray();
+        IntList[] lists = new IntList[grams.length];
+
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+
+        // walk the rarest gram and probe the others
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private static boolean containedInAll(IntList[] lists, int docId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(docId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addIfMatches(List<Match> matches, Doc doc, String normalizedTerm, BeerStyle beerStyle) {
+        if (doc == null || (beerStyle != null && beerStyle != doc.beerStyle())) {
+            return;
+        }
+
+        int position = doc.normalizedName().indexOf(normalizedTerm);
+        if (position < 0) {
+            return;
+        }
+
+        matches.add(new Match(doc.id(), doc.beerName(), doc.beerStyle(),
+                matchType(doc.normalizedName(), normalizedTerm, position)));
+    }
+
+    private static MatchType matchType(String normalizedName, String normalizedTerm, int position) {
+        if (position == 0) {
+            return normalizedName.length() == normalizedTerm.length() ? MatchType.EXACT : MatchType.PREFIX;
+        }
+
+        int wordStart = position;
+        while (wordStart >= 0) {
+            if (wordStart == 0 || !Character.isLetterOrDigit(normalizedName.charAt(wordStart - 1))) {
+                return MatchType.WORD_PREFIX;
+            }
+            wordStart = normalizedName.indexOf(normalizedTerm, wordStart + 1);
+        }
+        return MatchType.INFIX;
+    }
+
+    private void addDoc(Doc doc) {
+        int docId = docs.size();
+        docs.add(doc);
+        docIds.put(doc.id(), docId);
+
+        for (long gram : Arrays.stream(grams(doc.normalizedName())).distinct().toArray()) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(docId);
+        }
+    }
+
+    private void removeDoc(UUID id) {
+        Integer docId = docIds.remove(id);
+        if (docId != null) {
+            docs.set(docId, null);
+            removedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (removedCount < 1000 || removedCount < docs.size() / 4) {
+            return;
+        }
+
+        List<Doc> live = docs.stream().filter(doc -> doc != null).toList();
+        docs = new ArrayList<>(live.size());
+        docIds = new HashMap<>();
+        postings = new HashMap<>();
+        removedCount = 0;
+
+        live.forEach(this::addDoc);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] grams(String normalized) {
+        if (normalized.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+
+        long[] grams = new long[normalized.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
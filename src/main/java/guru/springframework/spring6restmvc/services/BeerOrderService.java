@@ -0,0 +1,24 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerOrderService {
+
+    Page<BeerOrderDTO> listOrders(Integer pageNumber, Integer pageSize);
+
+    Optional<BeerOrderDTO> getOrderById(UUID id);
+
+    /**
+     * Creates the order and allocates stock for every line, or nothing at all.
+     * Empty when the customer does not exist.
+     *
+     * @throws UnknownBeerException if any line names a beer that does not exist
+     * @throws InsufficientInventoryException if any line cannot be fully allocated
+     */
+    Optional<BeerOrderDTO> placeOrder(BeerOrderCreateDTO beerOrderCreateDTO);
+}
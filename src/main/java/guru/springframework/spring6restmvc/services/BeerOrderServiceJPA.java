@@ -0,0 +1,130 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.BeerOrder;
+import guru.springframework.spring6restmvc.entities.BeerOrderLine;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.mappers.BeerOrderMapper;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.BeerVersionView;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a page of orders in three statements whatever its size: the page of ids, the count,
+ * and one select joining customer, shipment, lines and beers through
+ * {@link BeerOrder#DETAIL_GRAPH}.
+ * <p>
+ * Placing an order allocates stock for all lines through the {@link InventoryAllocator}; a
+ * short line rolls the whole order back.
+ */
+@Service
+@RequiredArgsConstructor
+public class BeerOrderServiceJPA implements BeerOrderService {
+
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerRepository beerRepository;
+    private final CustomerRepository customerRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final InventoryAllocator inventoryAllocator;
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<BeerOrderDTO> listOrders(Integer pageNumber, Integer pageSize) {
+        Page<UUID> ids = beerOrderRepository.findPageOfIds(buildPageRequest(pageNumber, pageSize));
+
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+
+        Map<UUID, BeerOrder> ordersById = beerOrderRepository.findAllByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(BeerOrder::getId, Function.identity(), (first, second) -> first));
+
+        return new PageImpl<>(ids.getContent().stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto)
+                .toList(), ids.getPageable(), ids.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<BeerOrderDTO> getOrderById(UUID id) {
+        return beerOrderRepository.findDetailedById(id)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+
+    @Transactional
+    @Override
+    public Optional<BeerOrderDTO> placeOrder(BeerOrderCreateDTO beerOrderCreateDTO) {
+        Optional<Customer> customer = customerRepository.findById(beerOrderCreateDTO.getCustomerId());
+        if (customer.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        beerOrderCreateDTO.getBeerOrderLines().forEach(line ->
+                quantities.merge(line.getBeerId(), line.getOrderQuantity(), Integer::sum));
+
+        List<UUID> shortBeerIds = inventoryAllocator.allocate(quantities);
+        if (!shortBeerIds.isEmpty()) {
+            // the allocators can't tell a missing beer from an empty one; only look on failure
+            Set<UUID> existing = beerRepository.findVersionsByIdIn(shortBeerIds).stream()
+                    .map(BeerVersionView::getId)
+                    .collect(Collectors.toSet());
+            List<UUID> unknownBeerIds = shortBeerIds.stream().filter(id -> !existing.contains(id)).toList();
+            if (!unknownBeerIds.isEmpty()) {
+                throw new UnknownBeerException(unknownBeerIds);
+            }
+            throw new InsufficientInventoryException(shortBeerIds);
+        }
+
+        BeerOrder beerOrder = new BeerOrder();
+        beerOrder.setCustomerRef(beerOrderCreateDTO.getCustomerRef());
+        beerOrder.setCustomer(customer.get());
+        beerOrder.setBeerOrderLines(new HashSet<>());
+
+        quantities.forEach((beerId, quantity) -> beerOrder.getBeerOrderLines().add(BeerOrderLine.builder()
+                .beerOrder(beerOrder)
+                .beer(beerRepository.getReferenceById(beerId))
+                .orderQuantity(quantity)
+                .quantityAllocated(quantity)
+                .inventoryFlushed(!inventoryAllocator.isDeferred())
+                .build()));
+
+        BeerOrder savedOrder = beerOrderRepository.save(beerOrder);
+
+        return Optional.of(beerOrderMapper.beerOrderToBeerOrderDto(savedOrder));
+    }
+
+    private PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
+        int queryPageNumber = pageNumber != null && pageNumber > 0 ? pageNumber - 1 : DEFAULT_PAGE;
+        int queryPageSize = pageSize == null || pageSize < 1 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+
+        return PageRequest.of(queryPageNumber, queryPageSize,
+                Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("id")));
+    }
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BeerSearchService {
+
+    /**
+     * Whether lookups for {@code term} should go to the index: not before the first build
+     * finished, and not for terms too short to have trigrams. Callers query the database otherwise.
+     */
+    boolean canServe(String term);
+
+    /**
+     * Ids of the beers whose name contains {@code beerName}, unordered; the database orders and pages them.
+     */
+    List<UUID> findIdsByName(String beerName, BeerStyle beerStyle);
+
+    List<BeerNameIndex.Match> search(String query, BeerStyle beerStyle, int limit);
+}
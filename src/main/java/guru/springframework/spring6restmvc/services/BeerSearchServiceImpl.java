@@ -0,0 +1,124 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerNameView;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link BeerNameIndex} in step with the beer table.
+ * <p>
+ * Committed writes from this node arrive as {@link BeerChangedEvent}s. The index is also
+ * rebuilt from the table on a schedule, which picks up writes made by other nodes or
+ * straight through SQL.
+ */
+@Slf4j
+@Service
+public class BeerSearchServiceImpl implements BeerSearchService {
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile BeerNameIndex index = new BeerNameIndex();
+    private volatile boolean ready;
+
+    // events seen while a rebuild streams the table, replayed onto the new index before the swap
+    private List<BeerChangedEvent> eventsDuringRebuild;
+
+    public BeerSearchServiceImpl(BeerRepository beerRepository, PlatformTransactionManager transactionManager) {
+        this.beerRepository = beerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public boolean canServe(String term) {
+        return ready && BeerNameIndex.isIndexable(term);
+    }
+
+    @Override
+    public List<UUID> findIdsByName(String beerName, BeerStyle beerStyle) {
+        return index.findIds(beerName, beerStyle);
+    }
+
+    @Override
+    public List<BeerNameIndex.Match> search(String query, BeerStyle beerStyle, int limit) {
+        return index.findRanked(query, beerStyle, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval:PT5M}",
+            initialDelayString = "${app.search.refresh-interval:PT5M}")
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+
+        try {
+            synchronized (this) {
+                eventsDuringRebuild = new ArrayList<>();
+            }
+
+            BeerNameIndex rebuilt = new BeerNameIndex();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<BeerNameView> names = beerRepository.streamAllNames()) {
+                    names.forEach(name -> rebuilt.put(name.getId(), name.getBeerName(), name.getBeerStyle()));
+                }
+            });
+
+            synchronized (this) {
+                eventsDuringRebuild.forEach(event -> apply(rebuilt, event));
+                index = rebuilt;
+            }
+            ready = true;
+
+            log.debug("Beer name index rebuilt with " + rebuilt.size() + " beers");
+        } catch (RuntimeException e) {
+            log.error("Beer name index rebuild failed, keeping the previous index", e);
+        } finally {
+            synchronized (this) {
+                eventsDuringRebuild = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBeerChanged(BeerChangedEvent event) {
+        if (!event.changesName()) {
+            return;
+        }
+        apply(index, event);
+
+        if (eventsDuringRebuild != null) {
+            eventsDuringRebuild.add(event);
+        }
+    }
+
+    private static void apply(BeerNameIndex target, BeerChangedEvent event) {
+        if (event.deleted()) {
+            target.remove(event.beerId());
+        } else {
+            target.put(event.beerId(), event.beerName(), event.beerStyle());
+        }
+    }
+}
@@ -2,8 +2,11 @@ package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,13 +14,44 @@ public interface BeerService {
 
     Page<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize);
 
+    Slice<BeerDTO> listBeersAfter(String beerName, BeerStyle beerStyle, Boolean showInventory, SeekCursor after, Integer pageSize);
+
+    List<BeerDTO> searchBeers(String query, BeerStyle beerStyle, Boolean showInventory, Integer limit);
+
     Optional<BeerDTO> getBeerById(UUID id);
 
+    Optional<Integer> getBeerVersion(UUID id);
+
+    /**
+     * Opaque token that changes whenever any beer changes, for tagging listings.
+     */
+    String getCatalogVersion();
+
+    /**
+     * The catalog version last computed, reading the database only the first time. It may lag
+     * behind changes, which costs a client one extra full response at most, never a wrong 304,
+     * since the version only moves forward.
+     */
+    String getRecentCatalogVersion();
+
     BeerDTO saveNewBeer(BeerDTO beerDTO);
 
     Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beerDTO);
 
     Boolean deleteById(UUID beerId);
 
-    Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beerDTO);
+    Boolean patchBeerById(UUID beerId, BeerDTO beerDTO);
+
+    /**
+     * Replaces the beer only if it is still at {@code expectedVersion}. Returns the new version,
+     * or empty if the beer does not exist.
+     *
+     * @throws StaleVersionException if the beer has been changed since
+     */
+    Optional<Integer> updateBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO);
+
+    /**
+     * As {@link #updateBeerByIdIfVersion}, for the fields set on {@code beerDTO}.
+     */
+    Optional<Integer> patchBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO);
 }
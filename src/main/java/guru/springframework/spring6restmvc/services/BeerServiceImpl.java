@@ -2,9 +2,12 @@ package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -66,6 +69,19 @@ public class BeerServiceImpl implements BeerService {
     public Page<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize) {
         return new PageImpl<>(new ArrayList<>(beerMap.values()));
     }
+
+    @Override
+    public Slice<BeerDTO> listBeersAfter(String beerName, BeerStyle beerStyle, Boolean showInventory, SeekCursor after, Integer pageSize) {
+        return new SliceImpl<>(new ArrayList<>(beerMap.values()));
+    }
+
+    @Override
+    public List<BeerDTO> searchBeers(String query, BeerStyle beerStyle, Boolean showInventory, Integer limit) {
+        return beerMap.values().stream()
+                .filter(beerDTO -> beerDTO.getBeerName().toLowerCase().contains(query.toLowerCase()))
+                .toList();
+    }
+
     @Override
     public Optional<BeerDTO> getBeerById(UUID id) {
 
@@ -73,6 +89,23 @@ public class BeerServiceImpl implements BeerService {
         return Optional.of(beerMap.get(id));
     }
 
+    @Override
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return Optional.ofNullable(beerMap.get(id)).map(BeerDTO::getVersion);
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        return beerMap.size() + "-" + beerMap.values().stream()
+                .mapToLong(beerDTO -> beerDTO.getVersion() == null ? 0 : beerDTO.getVersion())
+                .sum();
+    }
+
+    @Override
+    public String getRecentCatalogVersion() {
+        return getCatalogVersion();
+    }
+
     @Override
     public BeerDTO saveNewBeer(BeerDTO beerDTO) {
         BeerDTO savedBeerDTO = BeerDTO.builder()
@@ -109,8 +142,11 @@ public class BeerServiceImpl implements BeerService {
     }
 
     @Override
-    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beerDTO) {
+    public Boolean patchBeerById(UUID beerId, BeerDTO beerDTO) {
         BeerDTO existing = beerMap.get(beerId);
+        if (existing == null) {
+            return false;
+        }
 
         if (StringUtils.hasText(beerDTO.getBeerName())) {
             existing.setBeerName(beerDTO.getBeerName());
@@ -127,6 +163,33 @@ public class BeerServiceImpl implements BeerService {
         if (StringUtils.hasText(beerDTO.getUpc())) {
             existing.setUpc(beerDTO.getUpc());
         }
-        return Optional.of(existing);
+        return true;
+    }
+
+    @Override
+    public Optional<Integer> updateBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO) {
+        return checkVersion(beerId, expectedVersion)
+                .flatMap(version -> updateBeerById(beerId, beerDTO))
+                .map(this::bumpVersion);
+    }
+
+    @Override
+    public Optional<Integer> patchBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO) {
+        return checkVersion(beerId, expectedVersion)
+                .filter(version -> patchBeerById(beerId, beerDTO))
+                .map(version -> bumpVersion(beerMap.get(beerId)));
+    }
+
+    private Optional<Integer> checkVersion(UUID beerId, Integer expectedVersion) {
+        Optional<Integer> current = getBeerVersion(beerId);
+        if (current.isPresent() && !current.get().equals(expectedVersion)) {
+            throw new StaleVersionException(beerId, current.get());
+        }
+        return current;
+    }
+
+    private Integer bumpVersion(BeerDTO beerDTO) {
+        beerDTO.setVersion(beerDTO.getVersion() + 1);
+        return beerDTO.getVersion();
     }
 }
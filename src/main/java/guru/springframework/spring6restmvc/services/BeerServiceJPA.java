@@ -1,23 +1,42 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import guru.springframework.spring6restmvc.repositories.BeerCatalogStateView;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.LikePatterns;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
-import java.awt.print.Pageable;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Primary
@@ -26,9 +45,18 @@ public class BeerServiceJPA implements BeerService {
 
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final BeerDtoCache beerDtoCache;
+    private final BeerSearchService beerSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_INDEXED_MATCHES = 1000;
 
+    private final AtomicReference<String> recentCatalogVersion = new AtomicReference<>();
+
+    @Transactional(readOnly = true)
     @Override
     public Page<BeerDTO> listBeers(String beerName,
                                    BeerStyle beerStyle,
@@ -38,28 +66,73 @@ public class BeerServiceJPA implements BeerService {
 
         PageRequest pageRequest = buildPageRequest(pageNumber, pageSize);
 
-        Page<Beer> beerPage;
+        Optional<List<UUID>> indexed = findIndexedIds(beerName, beerStyle);
+        if (indexed.isPresent()) {
+            return beerRepository.findBeerDtosIn(indexed.get(), isInventoryShown(showInventory), pageRequest);
+        }
 
-        if (StringUtils.hasText(beerName) && beerStyle == null) {
-            beerPage = listBeersByName(beerName, pageRequest);
-        } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeersByStyle(beerStyle, pageRequest);
-        } else if (StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeersByNameAndStyle(beerStyle, beerName, pageRequest);
-        } else {
-            beerPage = beerRepository.findAll(pageRequest);
+        return beerRepository.findBeerDtos(toLikePattern(beerName), beerStyle,
+                isInventoryShown(showInventory), pageRequest);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BeerDTO> listBeersAfter(String beerName,
+                                         BeerStyle beerStyle,
+                                         Boolean showInventory,
+                                         SeekCursor after,
+                                         Integer pageSize) {
+        int limit = resolvePageSize(pageSize);
+
+        Optional<List<UUID>> indexed = findIndexedIds(beerName, beerStyle);
+        if (indexed.isPresent()) {
+            return beerRepository.findBeerDtosInAfter(indexed.get(), isInventoryShown(showInventory), after, limit);
+        }
+
+        return beerRepository.findBeerDtosAfter(toLikePattern(beerName), beerStyle,
+                isInventoryShown(showInventory), after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BeerDTO> searchBeers(String query, BeerStyle beerStyle, Boolean showInventory, Integer limit) {
+        int resolvedLimit = resolvePageSize(limit);
+
+        if (!beerSearchService.canServe(query)) {
+            return listBeers(query, beerStyle, showInventory, 1, resolvedLimit).getContent();
         }
 
-        if (showInventory != null && !showInventory) {
-            beerPage.forEach(beer -> beer.setQuantityOnHand(null));
+        return loadInOrder(beerSearchService.search(query, beerStyle, resolvedLimit), isInventoryShown(showInventory));
+    }
+
+    /**
+     * The index only picks the matching ids; ordering and paging stay with the database, so a
+     * client paging across both paths, say while the index is still building, sees one sequence.
+     */
+    private Optional<List<UUID>> findIndexedIds(String beerName, BeerStyle beerStyle) {
+        if (!StringUtils.hasText(beerName) || !beerSearchService.canServe(beerName)) {
+            return Optional.empty();
         }
 
-        return beerPage.map(beerMapper::beerToBeerDto);
+        List<UUID> ids = beerSearchService.findIdsByName(beerName, beerStyle);
+        // past this an IN list costs more than the scan it saves
+        return ids.size() <= MAX_INDEXED_MATCHES ? Optional.of(ids) : Optional.empty();
+    }
+
+    private List<BeerDTO> loadInOrder(List<BeerNameIndex.Match> matches, boolean includeInventory) {
+        List<UUID> ids = matches.stream().map(BeerNameIndex.Match::id).toList();
+        Map<UUID, BeerDTO> beersById = beerRepository.findBeerDtosByIds(ids, includeInventory).stream()
+                .collect(Collectors.toMap(BeerDTO::getId, Function.identity()));
+
+        // a beer deleted on another node can still be in the index until the next rebuild
+        return ids.stream()
+                .map(beersById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
         int queryPageNumber;
-        int queryPageSize;
 
         if (pageNumber != null && pageNumber > 0) {
             queryPageNumber = pageNumber - 1;
@@ -67,45 +140,82 @@ public class BeerServiceJPA implements BeerService {
             queryPageNumber = DEFAULT_PAGE;
         }
 
+        // id breaks ties between equal names, the same order keyset paging uses
+        Sort sort = Sort.by(Sort.Order.asc("beerName"), Sort.Order.asc("id"));
+
+        return PageRequest.of(queryPageNumber, resolvePageSize(pageSize), sort);
+    }
+
+    private int resolvePageSize(Integer pageSize) {
         if (pageSize == null) {
-            queryPageSize = DEFAULT_PAGE_SIZE;
-        } else {
-            if (pageSize > 1000) {
-                queryPageSize = 1000;
-            } else {
-                queryPageSize = pageSize;
-            }
+            return DEFAULT_PAGE_SIZE;
         }
 
-        Sort sort = Sort.by(Sort.Order.asc("beerName"));
-
-        return PageRequest.of(queryPageNumber, queryPageSize, sort);
+        return Math.min(pageSize, MAX_PAGE_SIZE);
     }
 
-    public Page<Beer> listBeersByNameAndStyle(BeerStyle beerStyle, String beerName, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerStyleAndBeerNameIsLikeIgnoreCase(beerStyle, "%" + beerName + "%", pageRequest);
+    private boolean isInventoryShown(Boolean showInventory) {
+        return showInventory == null || showInventory;
     }
 
+    // % and _ in a name are matched literally, as the index matches them
+    private String toLikePattern(String beerName) {
+        if (!StringUtils.hasText(beerName)) {
+            return null;
+        }
 
-    public Page<Beer> listBeersByStyle(BeerStyle beerStyle, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerStyle(beerStyle, pageRequest);
-    }
-    public Page<Beer> listBeersByName(String beerName, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCase("%" + beerName + "%", pageRequest);
+        return LikePatterns.contains(beerName);
     }
 
     @Override
     public Optional<BeerDTO> getBeerById(UUID id) {
-        return Optional.ofNullable(
+        Optional<BeerDTO> cached = beerDtoCache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long loadTicket = beerDtoCache.loadTicket();
+        Optional<BeerDTO> loaded = Optional.ofNullable(
                 beerMapper.beerToBeerDto(
                         beerRepository.findById(id).orElse(null)
                 )
         );
+        loaded.ifPresent(beerDTO -> beerDtoCache.put(beerDTO, loadTicket));
+
+        return loaded;
+    }
+
+    @Override
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return beerDtoCache.get(id)
+                .map(BeerDTO::getVersion)
+                .or(() -> beerRepository.findVersionById(id));
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        BeerCatalogStateView state = beerRepository.findCatalogState();
+        long lastUpdated = state.getLastUpdated() == null
+                ? 0 : state.getLastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        String catalogVersion = state.getBeerCount() + "-" + state.getVersionSum() + "-" + lastUpdated;
+        recentCatalogVersion.set(catalogVersion);
+
+        return catalogVersion;
+    }
+
+    @Override
+    public String getRecentCatalogVersion() {
+        String catalogVersion = recentCatalogVersion.get();
+        return catalogVersion != null ? catalogVersion : getCatalogVersion();
     }
 
     @Override
     public BeerDTO saveNewBeer(BeerDTO beerDTO) {
-        return beerMapper.beerToBeerDto(beerRepository.save(beerMapper.beerDtoToBeer(beerDTO)));
+        Beer savedBeer = beerRepository.save(beerMapper.beerDtoToBeer(beerDTO));
+        publishSaved(savedBeer);
+
+        return beerMapper.beerToBeerDto(savedBeer);
     }
 
     @Override
@@ -119,10 +229,10 @@ public class BeerServiceJPA implements BeerService {
             foundBeer.setPrice(beerDTO.getPrice());
             foundBeer.setQuantityOnHand(beerDTO.getQuantityOnHand());
             foundBeer.setVersion(beerDTO.getVersion());
-            atomicReference.set(
-                    Optional.of(
-                            beerMapper.beerToBeerDto(
-                                    beerRepository.save(foundBeer))));
+            Beer savedBeer = beerRepository.save(foundBeer);
+            beerDtoCache.invalidate(beerId, savedBeer.getVersion());
+            publishSaved(savedBeer);
+            atomicReference.set(Optional.of(beerMapper.beerToBeerDto(savedBeer)));
         }, () -> atomicReference.set(Optional.empty()));
 
         return atomicReference.get();
@@ -132,42 +242,135 @@ public class BeerServiceJPA implements BeerService {
     public Boolean deleteById(UUID beerId) {
         if (beerRepository.existsById(beerId)) {
             beerRepository.deleteById(beerId);
+            beerDtoCache.invalidate(beerId);
+            eventPublisher.publishEvent(BeerChangedEvent.deleted(beerId));
             return true;
         }
         return false;
     }
 
+    @Transactional
     @Override
-    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beerDTO) {
-        AtomicReference<Optional<BeerDTO>> atomicReference = new AtomicReference<>();
+    public Boolean patchBeerById(UUID beerId, BeerDTO beerDTO) {
+        Map<String, Object> values = patchValues(beerDTO);
+        if (values.isEmpty()) {
+            return beerRepository.existsById(beerId);
+        }
+        validate(values);
 
-        beerRepository.findById(beerId).ifPresentOrElse(foundBeer -> {
-            if (StringUtils.hasText(beerDTO.getBeerName())) {
-                foundBeer.setBeerName(beerDTO.getBeerName());
-            }
+        // one partial update instead of load, dirty check and full-row update; the row count says whether it exists
+        if (beerRepository.updateBeer(beerId, null, values) == 0) {
+            return false;
+        }
 
-            if (beerDTO.getBeerStyle() != null) {
-                foundBeer.setBeerStyle(beerDTO.getBeerStyle());
+        beerDtoCache.evict(beerId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // a read between the update and the commit may have cached the old row
+                beerDtoCache.evict(beerId);
             }
+        });
+        publishUpdated(beerId, values);
 
-            if (StringUtils.hasText(beerDTO.getUpc())) {
-                foundBeer.setUpc(beerDTO.getUpc());
-            }
+        return true;
+    }
 
-            if (beerDTO.getPrice() != null) {
-                foundBeer.setPrice(beerDTO.getPrice());
+    @Transactional
+    @Override
+    public Optional<Integer> updateBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("beerName", beerDTO.getBeerName());
+        values.put("beerStyle", beerDTO.getBeerStyle());
+        values.put("upc", beerDTO.getUpc());
+        values.put("price", beerDTO.getPrice());
+        values.put("quantityOnHand", beerDTO.getQuantityOnHand());
+
+        return updateIfVersion(beerId, expectedVersion, values);
+    }
+
+    @Transactional
+    @Override
+    public Optional<Integer> patchBeerByIdIfVersion(UUID beerId, Integer expectedVersion, BeerDTO beerDTO) {
+        return updateIfVersion(beerId, expectedVersion, patchValues(beerDTO));
+    }
+
+    private Optional<Integer> updateIfVersion(UUID beerId, Integer expectedVersion, Map<String, Object> values) {
+        validate(values);
+
+        if (beerRepository.updateBeer(beerId, expectedVersion, values) == 0) {
+            // the miss is the rare path, so only then find out whether the beer is gone or just moved on
+            Integer currentVersion = beerRepository.findVersionById(beerId).orElse(null);
+            if (currentVersion == null) {
+                return Optional.empty();
             }
+            throw new StaleVersionException(beerId, currentVersion);
+        }
 
-            if (beerDTO.getQuantityOnHand() != null) {
-                foundBeer.setQuantityOnHand(beerDTO.getQuantityOnHand());
+        int newVersion = expectedVersion + 1;
+        beerDtoCache.invalidate(beerId, newVersion);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // a read between the update and the commit may have cached the old row
+                beerDtoCache.invalidate(beerId, newVersion);
             }
+        });
+        publishUpdated(beerId, values);
 
-            atomicReference.set(
-                    Optional.of(
-                            beerMapper.beerToBeerDto(
-                                    beerRepository.save(foundBeer))));
-        }, () -> atomicReference.set(Optional.empty()));
+        return Optional.of(newVersion);
+    }
 
-        return atomicReference.get();
+    private Map<String, Object> patchValues(BeerDTO beerDTO) {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        if (StringUtils.hasText(beerDTO.getBeerName())) {
+            values.put("beerName", beerDTO.getBeerName());
+        }
+        if (beerDTO.getBeerStyle() != null) {
+            values.put("beerStyle", beerDTO.getBeerStyle());
+        }
+        if (StringUtils.hasText(beerDTO.getUpc())) {
+            values.put("upc", beerDTO.getUpc());
+        }
+        if (beerDTO.getPrice() != null) {
+            values.put("price", beerDTO.getPrice());
+        }
+        if (beerDTO.getQuantityOnHand() != null) {
+            values.put("quantityOnHand", beerDTO.getQuantityOnHand());
+        }
+
+        return values;
+    }
+
+    // a bulk update skips the entity's bean validation, so check the new values up front
+    private void validate(Map<String, Object> values) {
+        Set<ConstraintViolation<Beer>> violations = new HashSet<>();
+        values.forEach((attribute, value) -> violations.addAll(validator.validateValue(Beer.class, attribute, value)));
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private void publishUpdated(UUID beerId, Map<String, Object> values) {
+        if (!values.containsKey("beerName") && !values.containsKey("beerStyle")) {
+            // nothing for the search index, but the inventory ledger still has to drop its stock
+            eventPublisher.publishEvent(BeerChangedEvent.updated(beerId));
+            return;
+        }
+
+        // the search index needs name and style together
+        if (values.get("beerName") != null && values.get("beerStyle") != null) {
+            eventPublisher.publishEvent(BeerChangedEvent.saved(beerId,
+                    (String) values.get("beerName"), (BeerStyle) values.get("beerStyle")));
+        } else {
+            beerRepository.findNameById(beerId).ifPresent(name -> eventPublisher.publishEvent(
+                    BeerChangedEvent.saved(beerId, name.getBeerName(), name.getBeerStyle())));
+        }
+    }
+
+    private void publishSaved(Beer beer) {
+        eventPublisher.publishEvent(BeerChangedEvent.saved(beer.getId(), beer.getBeerName(), beer.getBeerStyle()));
     }
 }
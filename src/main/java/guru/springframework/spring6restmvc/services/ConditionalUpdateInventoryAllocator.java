@@ -0,0 +1,59 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.BeerVersionView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Allocates with one conditional update per beer rather than a read-modify-write, so a popular
+ * beer never fails on a version check; concurrent orders queue on the row lock instead.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.inventory.ledger.enabled", havingValue = "false", matchIfMissing = true)
+public class ConditionalUpdateInventoryAllocator implements InventoryAllocator {
+
+    private final BeerRepository beerRepository;
+    private final BeerDtoCache beerDtoCache;
+
+    @Override
+    public List<UUID> allocate(Map<UUID, Integer> quantities) {
+        List<UUID> shortBeerIds = new ArrayList<>();
+
+        // row locks taken in id order so two orders can't deadlock
+        new TreeMap<>(quantities).forEach((beerId, quantity) -> {
+            if (beerRepository.allocateInventory(beerId, quantity) == 0) {
+                shortBeerIds.add(beerId);
+            }
+        });
+
+        if (shortBeerIds.isEmpty()) {
+            invalidateAfterCommit(beerRepository.findVersionsByIdIn(quantities.keySet()));
+        }
+        return shortBeerIds;
+    }
+
+    @Override
+    public boolean isDeferred() {
+        return false;
+    }
+
+    private void invalidateAfterCommit(List<BeerVersionView> allocatedBeers) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                allocatedBeers.forEach(beer -> beerDtoCache.invalidate(beer.getId(), beer.getVersion()));
+            }
+        });
+    }
+}
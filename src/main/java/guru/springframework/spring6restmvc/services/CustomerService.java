@@ -1,21 +1,40 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import org.springframework.data.domain.Slice;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CustomerService {
 
-    List<CustomerDTO> listCustomer();
+    Slice<CustomerDTO> listCustomers(String customerName, String email, CustomerSortField sortBy,
+                                     SeekCursor after, Integer pageSize);
+
     Optional<CustomerDTO> getCustomerById(UUID id);
 
+    Optional<Integer> getCustomerVersion(UUID id);
+
     CustomerDTO saveNewCustomer(CustomerDTO customerDTO);
 
     Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customerDTO);
 
     Boolean deleteById(UUID customerId);
 
-    Optional<CustomerDTO> patchById(UUID customerId, CustomerDTO customerDTO);
+    Boolean patchById(UUID customerId, CustomerDTO customerDTO);
+
+    /**
+     * Replaces the customer only if it is still at {@code expectedVersion}. Returns the new
+     * version, or empty if the customer does not exist.
+     *
+     * @throws StaleVersionException if the customer has been changed since
+     */
+    Optional<Integer> updateCustomerByIdIfVersion(UUID customerId, Integer expectedVersion, CustomerDTO customerDTO);
+
+    /**
+     * As {@link #updateCustomerByIdIfVersion}, for the fields set on {@code customerDTO}.
+     */
+    Optional<Integer> patchByIdIfVersion(UUID customerId, Integer expectedVersion, CustomerDTO customerDTO);
 }
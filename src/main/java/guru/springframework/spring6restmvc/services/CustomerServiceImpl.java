@@ -1,7 +1,11 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -47,9 +51,10 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public List<CustomerDTO> listCustomer() {
+    public Slice<CustomerDTO> listCustomers(String customerName, String email, CustomerSortField sortBy,
+                                            SeekCursor after, Integer pageSize) {
         log.debug("Getting a list of customers");
-        return new ArrayList<>(customerMap.values());
+        return new SliceImpl<>(new ArrayList<>(customerMap.values()));
     }
 
     @Override
@@ -58,6 +63,11 @@ public class CustomerServiceImpl implements CustomerService {
         return Optional.of(customerMap.get(id));
     }
 
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID id) {
+        return Optional.ofNullable(customerMap.get(id)).map(CustomerDTO::getVersion);
+    }
+
     @Override
     public CustomerDTO saveNewCustomer(CustomerDTO customerDTO) {
         CustomerDTO savedCustomerDTO = CustomerDTO.builder()
@@ -87,8 +97,11 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public Optional<CustomerDTO> patchById(UUID customerId, CustomerDTO customerDTO) {
+    public Boolean patchById(UUID customerId, CustomerDTO customerDTO) {
         CustomerDTO existing = customerMap.get(customerId);
+        if (existing == null) {
+            return false;
+        }
 
         if (StringUtils.hasText(customerDTO.getCustomerName())) {
             existing.setCustomerName(customerDTO.getCustomerName());
@@ -96,6 +109,34 @@ public class CustomerServiceImpl implements CustomerService {
         if (customerDTO.getVersion() != null) {
             existing.setVersion(customerDTO.getVersion());
         }
-        return Optional.of(existing);
+        return true;
+    }
+
+    @Override
+    public Optional<Integer> updateCustomerByIdIfVersion(UUID customerId, Integer expectedVersion,
+                                                         CustomerDTO customerDTO) {
+        return checkVersion(customerId, expectedVersion)
+                .flatMap(version -> updateCustomerById(customerId, customerDTO))
+                .map(this::bumpVersion);
+    }
+
+    @Override
+    public Optional<Integer> patchByIdIfVersion(UUID customerId, Integer expectedVersion, CustomerDTO customerDTO) {
+        return checkVersion(customerId, expectedVersion)
+                .filter(version -> patchById(customerId, customerDTO))
+                .map(version -> bumpVersion(customerMap.get(customerId)));
+    }
+
+    private Optional<Integer> checkVersion(UUID customerId, Integer expectedVersion) {
+        Optional<Integer> current = getCustomerVersion(customerId);
+        if (current.isPresent() && !current.get().equals(expectedVersion)) {
+            throw new StaleVersionException(customerId, current.get());
+        }
+        return current;
+    }
+
+    private Integer bumpVersion(CustomerDTO customerDTO) {
+        customerDTO.setVersion(customerDTO.getVersion() + 1);
+        return customerDTO.getVersion();
     }
 }
@@ -1,15 +1,27 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.entities.Customer;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.repositories.LikePatterns;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -20,12 +32,27 @@ public class CustomerServiceJPA implements CustomerService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final Validator validator;
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 1000;
 
+    @Transactional(readOnly = true)
     @Override
-    public List<CustomerDTO> listCustomer() {
-        return customerRepository.findAll().stream()
-                .map(customerMapper::customerToCustomerDto)
-                .toList();
+    public Slice<CustomerDTO> listCustomers(String customerName, String email, CustomerSortField sortBy,
+                                            SeekCursor after, Integer pageSize) {
+        String customerNamePattern = StringUtils.hasText(customerName) ? LikePatterns.contains(customerName) : null;
+        String emailPattern = StringUtils.hasText(email) ? LikePatterns.startsWith(email) : null;
+
+        return customerRepository.findCustomerDtosAfter(customerNamePattern, emailPattern,
+                sortBy == null ? CustomerSortField.CUSTOMER_NAME : sortBy, after, resolvePageSize(pageSize));
+    }
+
+    private int resolvePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        return Math.min(pageSize, MAX_PAGE_SIZE);
     }
 
     @Override
@@ -37,6 +64,11 @@ public class CustomerServiceJPA implements CustomerService {
         );
     }
 
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID id) {
+        return customerRepository.findVersionById(id);
+    }
+
     @Override
     public CustomerDTO saveNewCustomer(CustomerDTO customerDTO) {
         return customerMapper.customerToCustomerDto(
@@ -51,6 +83,7 @@ public class CustomerServiceJPA implements CustomerService {
 
         customerRepository.findById(customerId).ifPresentOrElse(found -> {
             found.setCustomerName(customerDTO.getCustomerName());
+            found.setEmail(customerDTO.getEmail());
             found.setLastModifiedDate(customerDTO.getLastModifiedDate());
             atomicReference.set(
                     Optional.of(
@@ -70,22 +103,70 @@ public class CustomerServiceJPA implements CustomerService {
         return false;
     }
 
+    @Transactional
     @Override
-    public Optional<CustomerDTO> patchById(UUID customerId, CustomerDTO customerDTO) {
-        AtomicReference<Optional<CustomerDTO>> atomicReference = new AtomicReference<>();
+    public Boolean patchById(UUID customerId, CustomerDTO customerDTO) {
+        Map<String, Object> values = patchValues(customerDTO);
+        if (values.isEmpty()) {
+            return customerRepository.existsById(customerId);
+        }
+        validate(values);
 
-        customerRepository.findById(customerId).ifPresentOrElse(found -> {
-            if (StringUtils.hasText(customerDTO.getCustomerName()))
-                found.setCustomerName(customerDTO.getCustomerName());
+        return customerRepository.updateCustomer(customerId, null, values) > 0;
+    }
 
-            if (customerDTO.getLastModifiedDate() != null)
-                    found.setLastModifiedDate(customerDTO.getLastModifiedDate());
-            atomicReference.set(
-                    Optional.of(
-                            customerMapper.customerToCustomerDto(
-                                    customerRepository.save(found))));
-        }, () -> atomicReference.set(Optional.empty()));
+    @Transactional
+    @Override
+    public Optional<Integer> updateCustomerByIdIfVersion(UUID customerId, Integer expectedVersion,
+                                                         CustomerDTO customerDTO) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("customerName", customerDTO.getCustomerName());
+        values.put("email", Customer.normalizeEmail(customerDTO.getEmail()));
 
-        return atomicReference.get();
+        return updateIfVersion(customerId, expectedVersion, values);
+    }
+
+    @Transactional
+    @Override
+    public Optional<Integer> patchByIdIfVersion(UUID customerId, Integer expectedVersion, CustomerDTO customerDTO) {
+        return updateIfVersion(customerId, expectedVersion, patchValues(customerDTO));
+    }
+
+    private Map<String, Object> patchValues(CustomerDTO customerDTO) {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        if (StringUtils.hasText(customerDTO.getCustomerName())) {
+            values.put("customerName", customerDTO.getCustomerName());
+        }
+        if (StringUtils.hasText(customerDTO.getEmail())) {
+            values.put("email", Customer.normalizeEmail(customerDTO.getEmail()));
+        }
+
+        return values;
+    }
+
+    private Optional<Integer> updateIfVersion(UUID customerId, Integer expectedVersion, Map<String, Object> values) {
+        validate(values);
+
+        if (customerRepository.updateCustomer(customerId, expectedVersion, values) == 0) {
+            Integer currentVersion = customerRepository.findVersionById(customerId).orElse(null);
+            if (currentVersion == null) {
+                return Optional.empty();
+            }
+            throw new StaleVersionException(customerId, currentVersion);
+        }
+
+        return Optional.of(expectedVersion + 1);
+    }
+
+    // a bulk update skips the entity's bean validation, so check the new values up front
+    private void validate(Map<String, Object> values) {
+        Set<ConstraintViolation<Customer>> violations = new HashSet<>();
+        values.forEach((attribute, value) ->
+                violations.addAll(validator.validateValue(Customer.class, attribute, value)));
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
     }
 }
@@ -0,0 +1,17 @@
+package guru.springframework.spring6restmvc.services;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+public class InsufficientInventoryException extends RuntimeException {
+
+    private final List<UUID> beerIds;
+
+    public InsufficientInventoryException(List<UUID> beerIds) {
+        super("Insufficient inventory for beers " + beerIds);
+        this.beerIds = beerIds;
+    }
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface InventoryAllocator {
+
+    /**
+     * Reserves the given quantity of each beer within the caller's transaction, which must roll
+     * back if anything comes back short.
+     *
+     * @return the beers that could not be covered, empty on success
+     */
+    List<UUID> allocate(Map<UUID, Integer> quantities);
+
+    /**
+     * Whether allocations are applied to {@code beer.quantity_on_hand} later rather than in the
+     * order's own transaction.
+     */
+    boolean isDeferred();
+}
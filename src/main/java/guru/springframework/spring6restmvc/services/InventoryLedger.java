@@ -0,0 +1,154 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory count of the stock still available per beer, reserved against without locks.
+ * <p>
+ * Each beer's count is split over several stripes, each on its own cache line, so threads
+ * reserving the same hot beer mostly CAS different words. A reservation sweeps the stripes
+ * from a random start until it has gathered the full quantity, and hands back what it took
+ * if it can't. A stripe never goes below zero, so the ledger never oversells, but a
+ * reservation racing another may see the last units as briefly unavailable.
+ * <p>
+ * A beer is loaded on first use from the database. Reservations whose transaction hasn't
+ * committed yet are tracked separately, so a beer evicted and reloaded meanwhile still
+ * accounts for them. A reload racing a reservation can under-count by that reservation
+ * until the next reload, never over-count.
+ */
+public class InventoryLedger {
+
+    // 8 longs = 64 bytes, one cache line per stripe
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final ConcurrentHashMap<UUID, Stock> stocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, LongAdder> inFlight = new ConcurrentHashMap<>();
+
+    public InventoryLedger(int stripes) {
+        this.stripes = stripes;
+    }
+
+    /**
+     * Reserves {@code quantity} of the beer, loading its committed availability through
+     * {@code loader} the first time it is seen. The loader runs outside the map's locks, so it
+     * may block; it must read committed data, not the caller's transaction snapshot.
+     */
+    public boolean tryReserve(UUID beerId, long quantity, ToLongFunction<UUID> loader) {
+        // counted as in flight before taking, so a concurrent reload can never miss it
+        LongAdder pending = inFlight.computeIfAbsent(beerId, id -> new LongAdder());
+        pending.add(quantity);
+
+        boolean taken = false;
+        try {
+            Stock stock = stocks.get(beerId);
+            if (stock == null) {
+                // read before loading: a line confirmed in between is then counted twice, never missed
+                long othersInFlight = pending.sum() - quantity;
+                Stock loaded = new Stock(loader.applyAsLong(beerId) - othersInFlight);
+                Stock raced = stocks.putIfAbsent(beerId, loaded);
+                stock = raced == null ? loaded : raced;
+            }
+            taken = stock.tryTake(quantity);
+            return taken;
+        } finally {
+            if (!taken) {
+                pending.add(-quantity);
+            }
+        }
+    }
+
+    /**
+     * Gives back a reservation whose transaction rolled back.
+     */
+    public void release(UUID beerId, long quantity) {
+        inFlightOf(beerId, -quantity);
+
+        Stock stock = stocks.get(beerId);
+        if (stock != null) {
+            stock.add(quantity);
+        }
+    }
+
+    /**
+     * Marks a reservation as committed; from now on the database accounts for it.
+     */
+    public void confirm(UUID beerId, long quantity) {
+        inFlightOf(beerId, -quantity);
+    }
+
+    /**
+     * Drops the beer's count so the next reservation reloads it, e.g. after a restock.
+     */
+    public void evict(UUID beerId) {
+        stocks.remove(beerId);
+    }
+
+    public long available(UUID beerId) {
+        Stock stock = stocks.get(beerId);
+        return stock == null ? -1 : stock.sum();
+    }
+
+    private long inFlightOf(UUID beerId) {
+        LongAdder pending = inFlight.get(beerId);
+        return pending == null ? 0 : pending.sum();
+    }
+
+    private void inFlightOf(UUID beerId, long delta) {
+        inFlight.computeIfAbsent(beerId, id -> new LongAdder()).add(delta);
+    }
+
+    private final class Stock {
+
+        private final AtomicLongArray cells = new AtomicLongArray(stripes * PADDING);
+
+        Stock(long available) {
+            long clamped = Math.max(available, 0);
+            for (int i = 0; i < stripes; i++) {
+                cells.set(i * PADDING, clamped / stripes + (i < clamped % stripes ? 1 : 0));
+            }
+        }
+
+        boolean tryTake(long quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            long taken = 0;
+
+            for (int i = 0; i < stripes && taken < quantity; i++) {
+                int cell = ((start + i) % stripes) * PADDING;
+                long current = cells.get(cell);
+
+                while (current > 0) {
+                    long take = Math.min(current, quantity - taken);
+                    if (cells.compareAndSet(cell, current, current - take)) {
+                        taken += take;
+                        break;
+                    }
+                    current = cells.get(cell);
+                }
+            }
+
+            if (taken < quantity) {
+                cells.getAndAdd(start * PADDING, taken);
+                return false;
+            }
+            return true;
+        }
+
+        void add(long quantity) {
+            cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 0; i < stripes; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+    }
+}
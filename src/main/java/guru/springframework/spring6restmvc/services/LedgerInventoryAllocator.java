@@ -0,0 +1,201 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
+import guru.springframework.spring6restmvc.repositories.BeerOrderLineRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.BeerVersionView;
+import guru.springframework.spring6restmvc.repositories.UnflushedAllocationView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserves stock against an {@link InventoryLedger} instead of the {@code beer} rows, so hot
+ * beers don't serialize orders on InnoDB row locks. Enabled with
+ * {@code app.inventory.ledger.enabled=true}.
+ * <p>
+ * Order lines are saved with {@code inventory_flushed = false}. A background flush nets
+ * them per beer, takes the totals off {@code beer.quantity_on_hand} and marks the lines in the
+ * same transaction. Nothing lives only in memory: after a crash the startup flush applies
+ * whatever lines were left. The ledger is per node, so run one writer node, or route each
+ * beer to a single node.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.inventory.ledger.enabled", havingValue = "true")
+public class LedgerInventoryAllocator implements InventoryAllocator {
+
+    private final BeerRepository beerRepository;
+    private final BeerOrderLineRepository beerOrderLineRepository;
+    private final BeerDtoCache beerDtoCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate loadTemplate;
+    private final InventoryLedger ledger;
+    private final int flushBatchSize;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LedgerInventoryAllocator(BeerRepository beerRepository,
+                                    BeerOrderLineRepository beerOrderLineRepository,
+                                    BeerDtoCache beerDtoCache,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.inventory.ledger.stripes:8}") int stripes,
+                                    @Value("${app.inventory.ledger.flush-batch-size:5000}") int flushBatchSize) {
+        this.beerRepository = beerRepository;
+        this.beerOrderLineRepository = beerOrderLineRepository;
+        this.beerDtoCache = beerDtoCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // the order's own snapshot may predate lines the ledger already confirmed, so load fresh
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.loadTemplate.setReadOnly(true);
+        this.ledger = new InventoryLedger(stripes);
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    public List<UUID> allocate(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> reserved = new HashMap<>();
+        List<UUID> shortBeerIds = new ArrayList<>();
+
+        try {
+            quantities.forEach((beerId, quantity) -> {
+                if (ledger.tryReserve(beerId, quantity, this::loadUnallocated)) {
+                    reserved.put(beerId, quantity);
+                } else {
+                    shortBeerIds.add(beerId);
+                }
+            });
+        } catch (RuntimeException e) {
+            // e.g. a load timing out; nothing is registered to give these back yet
+            reserved.forEach(ledger::release);
+            throw e;
+        }
+
+        if (!shortBeerIds.isEmpty()) {
+            reserved.forEach(ledger::release);
+            return shortBeerIds;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reserved.forEach(ledger::confirm);
+                } else {
+                    reserved.forEach(ledger::release);
+                }
+            }
+        });
+        return shortBeerIds;
+    }
+
+    @Override
+    public boolean isDeferred() {
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        // a restock or edit may have changed quantity_on_hand; reload on next use
+        ledger.evict(event.beerId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        int applied = flush();
+        if (applied > 0) {
+            log.info("Applied " + applied + " order lines left unflushed by the previous run");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.flush-interval:PT1S}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Applies every committed but unflushed allocation to the beer table.
+     *
+     * @return the number of order lines applied
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            int applied;
+            do {
+                applied = Objects.requireNonNull(transactionTemplate.execute(status -> flushBatch()));
+                total += applied;
+            } while (applied == flushBatchSize);
+            return total;
+        } catch (RuntimeException e) {
+            log.error("Inventory ledger flush failed, will retry", e);
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushBatch() {
+        List<UnflushedAllocationView> lines = beerOrderLineRepository
+                .findUnflushedAllocations(PageRequest.of(0, flushBatchSize));
+        if (lines.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, Integer> netted = new HashMap<>();
+        lines.forEach(line -> netted.merge(line.getBeerId(), line.getQuantityAllocated(), Integer::sum));
+
+        beerRepository.findStockByIdIn(netted.keySet()).forEach(stock -> {
+            int allocated = netted.get(stock.getId());
+            if (stock.getQuantityOnHand() != null && stock.getQuantityOnHand() < allocated) {
+                log.warn("Beer " + stock.getId() + " was restocked below its unflushed orders, short by "
+                        + (allocated - stock.getQuantityOnHand()));
+            }
+        });
+        netted.forEach(beerRepository::applyAllocation);
+        beerOrderLineRepository.markInventoryFlushed(lines.stream().map(UnflushedAllocationView::getId).toList());
+
+        List<BeerVersionView> versions = beerRepository.findVersionsByIdIn(netted.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.forEach(beer -> beerDtoCache.invalidate(beer.getId(), beer.getVersion()));
+            }
+        });
+
+        log.debug("Flushed " + lines.size() + " order lines onto " + netted.size() + " beers");
+        return lines.size();
+    }
+
+    private long loadUnallocated(UUID beerId) {
+        Long unallocated = loadTemplate.execute(status -> beerRepository.findUnallocatedInventory(beerId));
+        return unallocated == null ? 0 : unallocated;
+    }
+}
@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveBeerService {
+
+    Flux<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer limit);
+
+    Mono<BeerDTO> getBeerById(UUID id);
+}
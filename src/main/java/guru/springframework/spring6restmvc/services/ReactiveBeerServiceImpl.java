@@ -0,0 +1,93 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.LikePatterns;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reads the {@code beer} table over R2DBC. Rows are pulled only as fast as the subscriber
+ * requests them, so a slow client holds neither a thread nor a buffered result list.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveBeerServiceImpl implements ReactiveBeerService {
+
+    private static final int DEFAULT_LIMIT = 25;
+    private static final int MAX_LIMIT = 1000;
+
+    private static final String SELECT_BEER = "select id, version, beer_name, beer_style, upc, quantity_on_hand, "
+            + "price, created_date, updated_date from beer";
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveUuidCodec uuidCodec;
+    private final ReactiveBeerStyleCodec beerStyleCodec;
+
+    @Override
+    public Flux<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer limit) {
+        StringBuilder sql = new StringBuilder(SELECT_BEER).append(" where 1 = 1");
+
+        if (beerStyle != null) {
+            sql.append(" and beer_style = :beerStyle");
+        }
+        if (StringUtils.hasText(beerName)) {
+            sql.append(" and upper(beer_name) like :beerName escape '").append(LikePatterns.ESCAPE).append("'");
+        }
+        // matches the beer_name_idx and beer_style_name_idx column order
+        sql.append(" order by beer_name, id limit :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("limit", resolveLimit(limit));
+
+        if (beerStyle != null) {
+            spec = spec.bind("beerStyle", beerStyleCodec.toColumn(beerStyle));
+        }
+        if (StringUtils.hasText(beerName)) {
+            spec = spec.bind("beerName", LikePatterns.contains(beerName).toUpperCase());
+        }
+
+        boolean inventoryShown = showInventory == null || showInventory;
+
+        return spec.map(row -> toBeerDto(row, inventoryShown)).all();
+    }
+
+    @Override
+    public Mono<BeerDTO> getBeerById(UUID id) {
+        return databaseClient.sql(SELECT_BEER + " where id = :id")
+                .bind("id", uuidCodec.toColumn(id))
+                .map(row -> toBeerDto(row, true))
+                .one();
+    }
+
+    private BeerDTO toBeerDto(Readable row, boolean inventoryShown) {
+        return BeerDTO.builder()
+                .id(uuidCodec.fromColumn(row.get("id")))
+                .version(row.get("version", Integer.class))
+                .beerName(row.get("beer_name", String.class))
+                .beerStyle(beerStyleCodec.fromColumn(row.get("beer_style")))
+                .upc(row.get("upc", String.class))
+                .quantityOnHand(inventoryShown ? row.get("quantity_on_hand", Integer.class) : null)
+                .price(row.get("price", BigDecimal.class))
+                .createdDate(row.get("created_date", LocalDateTime.class))
+                .updatedDate(row.get("updated_date", LocalDateTime.class))
+                .build();
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
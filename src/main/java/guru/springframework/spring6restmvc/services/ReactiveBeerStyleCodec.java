@@ -0,0 +1,41 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * Converts {@code beer_style} for the R2DBC read path the same way JPA maps {@link Beer#getBeerStyle()}:
+ * by name under {@link EnumType#STRING}, by ordinal otherwise, so a style filter can't drift from what
+ * Hibernate wrote.
+ */
+@Component
+public class ReactiveBeerStyleCodec {
+
+    private final boolean byName;
+
+    public ReactiveBeerStyleCodec() {
+        Field field = ReflectionUtils.findField(Beer.class, "beerStyle");
+        Enumerated enumerated = field == null ? null : field.getAnnotation(Enumerated.class);
+        this.byName = enumerated != null && enumerated.value() == EnumType.STRING;
+    }
+
+    public Object toColumn(BeerStyle beerStyle) {
+        return byName ? beerStyle.name() : beerStyle.ordinal();
+    }
+
+    public BeerStyle fromColumn(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return BeerStyle.values()[number.intValue()];
+        }
+        return BeerStyle.valueOf(value.toString().trim());
+    }
+}
@@ -0,0 +1,14 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveCustomerService {
+
+    Flux<CustomerDTO> listCustomers(String customerName, Integer limit);
+
+    Mono<CustomerDTO> getCustomerById(UUID id);
+}
@@ -0,0 +1,72 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.repositories.LikePatterns;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private static final int DEFAULT_LIMIT = 25;
+    private static final int MAX_LIMIT = 1000;
+
+    private static final String SELECT_CUSTOMER = "select id, version, customer_name, email, created_date, "
+            + "last_modified_date from customer";
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveUuidCodec uuidCodec;
+
+    @Override
+    public Flux<CustomerDTO> listCustomers(String customerName, Integer limit) {
+        boolean filtered = StringUtils.hasText(customerName);
+        String sql = SELECT_CUSTOMER
+                + (filtered ? " where upper(customer_name) like :customerName escape '" + LikePatterns.ESCAPE + "'" : "")
+                + " order by customer_name, id limit :limit";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("limit", resolveLimit(limit));
+
+        if (filtered) {
+            spec = spec.bind("customerName", LikePatterns.contains(customerName).toUpperCase());
+        }
+
+        return spec.map(this::toCustomerDto).all();
+    }
+
+    @Override
+    public Mono<CustomerDTO> getCustomerById(UUID id) {
+        return databaseClient.sql(SELECT_CUSTOMER + " where id = :id")
+                .bind("id", uuidCodec.toColumn(id))
+                .map(this::toCustomerDto)
+                .one();
+    }
+
+    private CustomerDTO toCustomerDto(Readable row) {
+        return CustomerDTO.builder()
+                .id(uuidCodec.fromColumn(row.get("id")))
+                .version(row.get("version", Integer.class))
+                .customerName(row.get("customer_name", String.class))
+                .email(row.get("email", String.class))
+                .createdDate(row.get("created_date", LocalDateTime.class))
+                .lastModifiedDate(row.get("last_modified_date", LocalDateTime.class))
+                .build();
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
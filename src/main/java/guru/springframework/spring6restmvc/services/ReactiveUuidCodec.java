@@ -0,0 +1,51 @@
+package guru.springframework.spring6restmvc.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Converts ids for the R2DBC read path, which bypasses Hibernate's UUID type. Follows
+ * {@code hibernate.type.preferred_uuid_jdbc_type} so it reads {@code varchar(36)} keys by
+ * default and {@code binary(16)} ones under the binaryids profile.
+ */
+@Component
+public class ReactiveUuidCodec {
+
+    private final boolean binary;
+
+    public ReactiveUuidCodec(@Value("${spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type:VARCHAR}")
+                             String preferredUuidJdbcType) {
+        this.binary = "BINARY".equalsIgnoreCase(preferredUuidJdbcType);
+    }
+
+    public Object toColumn(UUID id) {
+        if (!binary) {
+            return id.toString();
+        }
+
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    public UUID fromColumn(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        if (value instanceof byte[] bytes) {
+            value = ByteBuffer.wrap(bytes);
+        }
+        if (value instanceof ByteBuffer buffer) {
+            ByteBuffer duplicate = buffer.duplicate();
+            return new UUID(duplicate.getLong(), duplicate.getLong());
+        }
+        return UUID.fromString(value.toString());
+    }
+}
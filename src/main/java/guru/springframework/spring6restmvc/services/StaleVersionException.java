@@ -0,0 +1,18 @@
+package guru.springframework.spring6restmvc.services;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class StaleVersionException extends RuntimeException {
+
+    private final UUID id;
+    private final Integer currentVersion;
+
+    public StaleVersionException(UUID id, Integer currentVersion) {
+        super("Version of " + id + " is now " + currentVersion);
+        this.id = id;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,17 @@
+package guru.springframework.spring6restmvc.services;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+public class UnknownBeerException extends RuntimeException {
+
+    private final List<UUID> beerIds;
+
+    public UnknownBeerException(List<UUID> beerIds) {
+        super("Unknown beers " + beerIds);
+        this.beerIds = beerIds;
+    }
+}
@@ -0,0 +1,3 @@
+update customer
+set email = lower(email)
+where email is not null;
@@ -0,0 +1,3 @@
+create index beer_style_name_idx on beer (beer_style, beer_name, id);
+
+create index beer_name_idx on beer (beer_name, id);
@@ -0,0 +1,3 @@
+create index customer_name_idx on customer (customer_name, id);
+
+create index customer_email_idx on customer (email, id);
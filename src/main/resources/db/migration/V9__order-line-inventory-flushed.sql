@@ -0,0 +1,4 @@
+alter table beer_order_line
+    add column inventory_flushed bit not null default 1;
+
+create index beer_order_line_flushed_idx on beer_order_line (inventory_flushed, id);
@@ -0,0 +1,82 @@
+package guru.springframework.spring6restmvc.benchmark;
+
+import guru.springframework.spring6restmvc.bootstrap.BootstrapData;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.mappers.BeerMapperImpl;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes allocated per listing page between loading managed {@code Beer}
+ * entities and mapping them, and selecting straight into {@link BeerDTO}; the projection
+ * must allocate less.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import({BootstrapData.class, BeerCsvServiceImpl.class, BeerMapperImpl.class})
+class BeerListAllocationBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerMapper beerMapper;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {25, 250, 1000})
+    void compareAllocationsPerPage(int pageSize) {
+        PageRequest pageRequest = PageRequest.of(0, pageSize, Sort.by("beerName"));
+
+        long entityBytes = bytesPerCall(() ->
+                beerRepository.findAll(pageRequest).map(beerMapper::beerToBeerDto));
+        long projectionBytes = bytesPerCall(() ->
+                beerRepository.findBeerDtos(null, null, true, pageRequest));
+
+        System.out.printf("pageSize=%d entities=%d B/page projection=%d B/page (%.1f%%)%n",
+                pageSize, entityBytes, projectionBytes, 100.0 * projectionBytes / entityBytes);
+
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private long bytesPerCall(Supplier<Page<BeerDTO>> listCall) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            listCall.get();
+            testEntityManager.clear();
+        }
+
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            listCall.get();
+            testEntityManager.clear();
+        }
+        long after = threadMXBean.getCurrentThreadAllocatedBytes();
+
+        return (after - before) / MEASURED_ITERATIONS;
+    }
+}
@@ -0,0 +1,91 @@
+package guru.springframework.spring6restmvc.benchmark;
+
+import guru.springframework.spring6restmvc.config.QueryCounter;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares a price PATCH done the old way, loading the beer, changing it and saving it, with
+ * the single partial update {@link BeerService#patchBeerById} now issues. Reports statements
+ * and time per patch and fails unless the partial update takes exactly one statement. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BeerPatchBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int MEASURED_ITERATIONS = 2000;
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareLoadThenSaveWithPartialUpdate() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<UUID> beerIds = beerRepository.findAll(PageRequest.of(0, 100)).map(Beer::getId).getContent();
+
+        Consumer<BeerDTO> loadThenSave = patch -> transactionTemplate.executeWithoutResult(status ->
+                beerRepository.findById(patch.getId()).ifPresent(beer -> {
+                    beer.setPrice(patch.getPrice());
+                    beerRepository.save(beer);
+                }));
+        Consumer<BeerDTO> partialUpdate = patch -> beerService.patchBeerById(patch.getId(), patch);
+
+        report("load-then-save", beerIds, loadThenSave);
+        double partialUpdateStatements = report("partial-update", beerIds, partialUpdate);
+
+        assertThat(partialUpdateStatements).isEqualTo(1.0);
+    }
+
+    private static double report(String name, List<UUID> beerIds, Consumer<BeerDTO> patchCall) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            patchCall.accept(pricePatch(beerIds, i));
+        }
+
+        long statements = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            BeerDTO patch = pricePatch(beerIds, i);
+            statements += QueryCounter.count(() -> {
+                patchCall.accept(patch);
+                return null;
+            }).queryCount().total();
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / MEASURED_ITERATIONS;
+
+        double statementsPerPatch = (double) statements / MEASURED_ITERATIONS;
+        System.out.printf("%s: %.1f us/patch, %.2f statements/patch%n", name, micros, statementsPerPatch);
+
+        return statementsPerPatch;
+    }
+
+    private static BeerDTO pricePatch(List<UUID> beerIds, int iteration) {
+        return BeerDTO.builder()
+                .id(beerIds.get(iteration % beerIds.size()))
+                .price(BigDecimal.valueOf(1000 + iteration % 1000, 2))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package guru.springframework.spring6restmvc.benchmark;
+
+import guru.springframework.spring6restmvc.config.QueryCounter;
+import guru.springframework.spring6restmvc.entities.TimeOrderedUuidGenerator;
+import guru.springframework.spring6restmvc.mappers.CustomerMapper;
+import guru.springframework.spring6restmvc.mappers.CustomerMapperImpl;
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares offset paging over loaded entities with keyset paging over projections, at the
+ * start and deep into a large customer table. Both must return the same rows, keyset in a
+ * single statement. Row count defaults to 500k; set
+ * {@code -Dbenchmark.customers=3000000} to match production.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:customerbench;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CustomerMapperImpl.class)
+class CustomerListingBenchmarkTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 500_000);
+    private static final int PAGE_SIZE = 100;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    CustomerMapper customerMapper;
+
+    @Autowired
+    DataSource dataSource;
+
+    @BeforeEach
+    void loadCustomers() throws SQLException {
+        if (customerRepository.count() >= CUSTOMERS) {
+            return;
+        }
+
+        Random random = new Random(7);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into customer (id, version, customer_name, email, created_date, last_modified_date) " +
+                             "values (?, 0, ?, ?, ?, ?)")) {
+            for (int i = 0; i < CUSTOMERS; i++) {
+                String name = "Customer " + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36);
+                insert.setString(1, TimeOrderedUuidGenerator.next().toString());
+                insert.setString(2, name);
+                insert.setString(3, name.replace(' ', '.').toLowerCase() + "@example.com");
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @Test
+    void compareOffsetAndKeysetPaging() {
+        Sort sort = Sort.by("customerName", "id");
+
+        for (int page : new int[]{0, CUSTOMERS / PAGE_SIZE / 2, CUSTOMERS / PAGE_SIZE - 1}) {
+            PageRequest pageRequest = PageRequest.of(page, PAGE_SIZE, sort);
+
+            // the cursor a client would hold after reading every earlier page
+            SeekCursor cursor = null;
+            if (page > 0) {
+                CustomerDTO last = customerMapper.customerToCustomerDto(
+                        customerRepository.findAll(PageRequest.of(page - 1, PAGE_SIZE, sort))
+                                .getContent().get(PAGE_SIZE - 1));
+                cursor = SeekCursor.of(last.getCustomerName(), last.getId());
+            }
+            SeekCursor after = cursor;
+
+            // same rows either way, keyset without the count query offset paging needs
+            QueryCounter.Counted<List<CustomerDTO>> offsetPage = QueryCounter.count(() ->
+                    customerRepository.findAll(pageRequest).map(customerMapper::customerToCustomerDto).getContent());
+            QueryCounter.Counted<List<CustomerDTO>> keysetPage = QueryCounter.count(() ->
+                    customerRepository.findCustomerDtosAfter(null, null,
+                            CustomerSortField.CUSTOMER_NAME, after, PAGE_SIZE).getContent());
+
+            assertThat(keysetPage.result()).extracting(CustomerDTO::getId)
+                    .containsExactlyElementsOf(offsetPage.result().stream().map(CustomerDTO::getId).toList());
+            assertThat(keysetPage.queryCount().total()).isEqualTo(1);
+
+            double offsetMillis = millisPerCall(() ->
+                    customerRepository.findAll(pageRequest).map(customerMapper::customerToCustomerDto).getContent());
+            double keysetMillis = millisPerCall(() -> {
+                Slice<CustomerDTO> slice = customerRepository.findCustomerDtosAfter(null, null,
+                        CustomerSortField.CUSTOMER_NAME, after, PAGE_SIZE);
+                return slice.getContent();
+            });
+
+            System.out.printf("customers=%d page=%d offset=%.2f ms keyset=%.2f ms%n",
+                    CUSTOMERS, page, offsetMillis, keysetMillis);
+        }
+    }
+
+    private static double millisPerCall(Supplier<List<CustomerDTO>> listCall) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            listCall.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            listCall.get();
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
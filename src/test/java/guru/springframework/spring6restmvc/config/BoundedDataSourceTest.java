@@ -0,0 +1,61 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BoundedDataSourceTest {
+
+    DataSource target;
+    Connection connection;
+    BoundedDataSource boundedDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        given(target.getConnection()).willReturn(connection);
+        boundedDataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testCloseReleasesPermitOnce() throws SQLException {
+        Connection first = boundedDataSource.getConnection();
+        assertThat(boundedDataSource.availablePermits()).isEqualTo(1);
+
+        first.close();
+        first.close();
+
+        assertThat(boundedDataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testTimesOutWhenPermitsExhausted() throws SQLException {
+        boundedDataSource.getConnection();
+        boundedDataSource.getConnection();
+
+        assertThatThrownBy(() -> boundedDataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void testFailedCheckoutReleasesPermit() throws SQLException {
+        given(target.getConnection()).willThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(() -> boundedDataSource.getConnection()).isInstanceOf(SQLException.class);
+        assertThat(boundedDataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,66 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.BeerServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceMetricsAspectTest {
+
+    SimpleMeterRegistry meterRegistry;
+    BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BeerServiceImpl());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testTagsListingShape() {
+        beerService.searchBeers("ipa", BeerStyle.IPA, true, 10);
+        beerService.listBeers(null, null, null, null, 500);
+
+        Timer search = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "BeerServiceImpl")
+                .tag("method", "searchBeers")
+                .tag("filter", "name+style")
+                .tag("beer_style", "IPA")
+                .tag("page_size", "le25")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        Timer list = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "listBeers")
+                .tag("filter", "none")
+                .tag("page_size", "le1000")
+                .timer();
+
+        assertThat(search.count()).isEqualTo(1);
+        assertThat(list.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCountsErrors() {
+        assertThatThrownBy(() -> beerService.updateBeerById(UUID.randomUUID(), null))
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "updateBeerById")
+                .tag("outcome", "ERROR")
+                .tag("exception", "NullPointerException")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -2,43 +2,70 @@ package guru.springframework.spring6restmvc.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import guru.springframework.spring6restmvc.config.JacksonConfig;
+import guru.springframework.spring6restmvc.config.QueryCountFilter;
+import guru.springframework.spring6restmvc.config.QueryCounter;
 import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.events.BeerChangedEvent;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchAction;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import org.hamcrest.core.IsNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_BATCH_PATH;
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_EXPORT_PATH;
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_IMPORT_PATH;
 import static guru.springframework.spring6restmvc.controller.BeerController.BEER_PATH;
 import static guru.springframework.spring6restmvc.controller.BeerController.BEER_PATH_ID;
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_SEARCH_PATH;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
+@RecordApplicationEvents
 class BeerControllerIT {
     @Autowired
     BeerController beerController;
@@ -50,11 +77,249 @@ class BeerControllerIT {
     WebApplicationContext wac;
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    QueryCountFilter queryCountFilter;
+    @Autowired
+    ApplicationEvents applicationEvents;
     MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac)
+                .addFilters(queryCountFilter)
+                .build();
+    }
+
+    static ResultMatcher maxQueries(int max) {
+        return result -> assertThat(Integer.parseInt(result.getResponse()
+                .getHeader(QueryCountFilter.QUERY_COUNT_HEADER))).isLessThanOrEqualTo(max);
+    }
+
+    @Test
+    void testListBeersByStyleQueryCount() throws Exception {
+        mockMvc.perform(get(BEER_PATH).header(HttpHeaders.IF_NONE_MATCH, "W/\"unknown\""))
+                .andExpect(status().isOk());
+
+        // one page select and one count; the ETag reuses the catalog version the request above computed
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.IPA.name())
+                        .queryParam("pageSize", "100"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(maxQueries(2));
+    }
+
+    @Test
+    void testListBeersByNameQueryCount() throws Exception {
+        mockMvc.perform(get(BEER_PATH).header(HttpHeaders.IF_NONE_MATCH, "W/\"unknown\""))
+                .andExpect(status().isOk());
+
+        // shorter than a trigram, so the name index can't serve it and the LIKE query runs
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerName", "IP")
+                        .queryParam("pageSize", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThan(0)))
+                .andExpect(result -> assertThat(Integer.parseInt(result.getResponse()
+                        .getHeader(QueryCountFilter.QUERY_COUNT_HEADER))).isPositive())
+                .andExpect(maxQueries(2));
+    }
+
+    @Test
+    void testListBeersCompactEnvelope() throws Exception {
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("pageSize", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(50)))
+                .andExpect(jsonPath("$.size", is(50)))
+                .andExpect(jsonPath("$.totalElements").isNumber())
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+
+    @Test
+    void testListBeersAsSmile() throws Exception {
+        byte[] body = mockMvc.perform(get(BEER_PATH)
+                        .queryParam("pageSize", "50")
+                        .accept(JacksonConfig.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(JacksonConfig.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(body).get("content")).hasSize(50);
+    }
+
+    @Test
+    void testGetBeerByIdNotModified() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        String eTag = mockMvc.perform(get(BEER_PATH_ID, beer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.strong(beer.getId(), beer.getVersion())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // answered from the version column alone
+        mockMvc.perform(get(BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andExpect(maxQueries(1));
+    }
+
+    @Test
+    void testGetBeerByIdStaleETag() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        mockMvc.perform(get(BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.strong(beer.getId(), beer.getVersion() - 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(beer.getId().toString())));
+    }
+
+    @Test
+    void testListBeersNotModifiedUntilBeerChanges() throws Exception {
+        // an unconditional listing may carry a lagging tag, a conditional one always gets the current
+        String eTag = mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.PORTER.name())
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"unknown\""))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(eTag).startsWith("W/");
+
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.PORTER.name())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(maxQueries(1));
+
+        Beer saved = beerRepository.save(Beer.builder()
+                .beerName("Retag")
+                .beerStyle(BeerStyle.PORTER)
+                .upc("123123")
+                .price(new BigDecimal("9.99"))
+                .build());
+
+        try {
+            mockMvc.perform(get(BEER_PATH)
+                            .queryParam("beerStyle", BeerStyle.PORTER.name())
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        } finally {
+            beerRepository.deleteById(saved.getId());
+        }
+    }
+
+    @Test
+    void testGetBeerByIdQueryCount() {
+        Beer beer = beerRepository.findAll().get(0);
+
+        QueryCounter.Counted<BeerDTO> counted = QueryCounter.count(() -> beerController.getBeerById(beer.getId(), null).getBody());
+
+        assertThat(counted.result().getId()).isEqualTo(beer.getId());
+        assertThat(counted.queryCount().total()).isLessThanOrEqualTo(1);
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testUpdateBeerIfMatch() throws Exception {
+        // a projection, so no managed copy in the test's persistence context needs refreshing
+        BeerDTO beerDto = beerRepository.findBeerDtos(null, null, true, PageRequest.of(0, 1)).getContent().get(0);
+        UUID beerId = beerDto.getId();
+        Integer version = beerDto.getVersion();
+        beerDto.setBeerName("Updated name");
+
+        // one conditional update, no select before it
+        mockMvc.perform(put(BEER_PATH_ID, beerId)
+                        .header(HttpHeaders.IF_MATCH, ETags.strong(beerId, version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerDto)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.strong(beerId, version + 1)))
+                .andExpect(maxQueries(1));
+
+        beerDto.setBeerName("Updated name 2");
+
+        mockMvc.perform(put(BEER_PATH_ID, beerId)
+                        .header(HttpHeaders.IF_MATCH, ETags.strong(beerId, version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.strong(beerId, version + 1)));
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testPatchBeerSingleStatement() throws Exception {
+        BeerDTO beerDto = beerRepository.findBeerDtos(null, null, true, PageRequest.of(0, 1)).getContent().get(0);
+
+        mockMvc.perform(patch(BEER_PATH_ID, beerDto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("price", "4.99"))))
+                .andExpect(status().isNoContent())
+                .andExpect(maxQueries(1));
+
+        Beer patched = beerRepository.findById(beerDto.getId()).orElseThrow();
+        assertThat(patched.getPrice()).isEqualByComparingTo("4.99");
+        assertThat(patched.getBeerName()).isEqualTo(beerDto.getBeerName());
+        assertThat(patched.getVersion()).isEqualTo(beerDto.getVersion() + 1);
+        // a price-only patch leaves the search index alone but still tells the stock caches
+        assertThat(applicationEvents.stream(BeerChangedEvent.class))
+                .anySatisfy(event -> {
+                    assertThat(event.beerId()).isEqualTo(beerDto.getId());
+                    assertThat(event.changesName()).isFalse();
+                });
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testPatchBeerIfMatch() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        mockMvc.perform(patch(BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_MATCH, ETags.strong(beer.getId(), beer.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("price", "4.99"))))
+                .andExpect(status().isNoContent());
+
+        assertThat(beerRepository.findVersionById(beer.getId())).contains(beer.getVersion() + 1);
+    }
+
+    @Test
+    void testPatchBeerIfMatchTooLongName() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        mockMvc.perform(patch(BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_MATCH, ETags.strong(beer.getId(), beer.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("beerName", "x".repeat(51)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPatchBeerIfMatchNotFound() throws Exception {
+        UUID beerId = UUID.randomUUID();
+
+        mockMvc.perform(patch(BEER_PATH_ID, beerId)
+                        .header(HttpHeaders.IF_MATCH, ETags.strong(beerId, 0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("price", "4.99"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUpdateBeerIfMatchForeignTag() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        mockMvc.perform(put(BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"" + beer.getId() + "-" + beer.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerMapper.beerToBeerDto(beer))))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
@@ -82,6 +347,196 @@ class BeerControllerIT {
                 .andReturn();
     }
 
+    @Transactional
+    @Rollback
+    @Test
+    void testProcessBatch() throws Exception {
+        List<Beer> beers = beerRepository.findAll().subList(0, 2);
+        Beer toUpdate = beers.get(0);
+        Beer toDelete = beers.get(1);
+
+        BeerDTO updated = beerMapper.beerToBeerDto(toUpdate);
+        updated.setBeerName("Batch Updated");
+
+        BeerDTO created = BeerDTO.builder()
+                .beerName("Batch Created")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("98765")
+                .price(BigDecimal.TEN)
+                .build();
+
+        List<BeerBatchItemDTO> items = List.of(
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).id(toUpdate.getId()).beer(updated).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).beer(created).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.DELETE).id(toDelete.getId()).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.DELETE).id(UUID.randomUUID()).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).beer(BeerDTO.builder().build()).build());
+
+        mockMvc.perform(post(BEER_BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(5)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[1].status", is(201)))
+                .andExpect(jsonPath("$[1].id").value(IsNull.notNullValue()))
+                .andExpect(jsonPath("$[2].status", is(204)))
+                .andExpect(jsonPath("$[3].status", is(404)))
+                .andExpect(jsonPath("$[4].status", is(400)));
+
+        assertThat(beerRepository.findById(toUpdate.getId()).orElseThrow().getBeerName()).isEqualTo("Batch Updated");
+        assertThat(beerRepository.existsById(toDelete.getId())).isFalse();
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testProcessBatchRejectsStaleVersionAndDuplicateId() throws Exception {
+        List<Beer> beers = beerRepository.findAll().subList(0, 2);
+        Beer stale = beers.get(0);
+        Beer duplicated = beers.get(1);
+
+        BeerDTO staleUpdate = beerMapper.beerToBeerDto(stale);
+        staleUpdate.setBeerName("Stale Update");
+        staleUpdate.setVersion(stale.getVersion() - 1);
+
+        BeerDTO firstUpdate = beerMapper.beerToBeerDto(duplicated);
+        firstUpdate.setBeerName("First Update");
+        BeerDTO secondUpdate = firstUpdate.toBuilder().beerName("Second Update").build();
+
+        List<BeerBatchItemDTO> items = List.of(
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).id(stale.getId()).beer(staleUpdate).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).id(duplicated.getId()).beer(firstUpdate).build(),
+                BeerBatchItemDTO.builder().action(BeerBatchAction.UPSERT).id(duplicated.getId()).beer(secondUpdate).build());
+
+        mockMvc.perform(post(BEER_BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(409)))
+                .andExpect(jsonPath("$[0].version", is(stale.getVersion())))
+                .andExpect(jsonPath("$[1].status", is(200)))
+                .andExpect(jsonPath("$[2].status", is(400)));
+
+        assertThat(beerRepository.findById(stale.getId()).orElseThrow().getBeerName()).isNotEqualTo("Stale Update");
+        assertThat(beerRepository.findById(duplicated.getId()).orElseThrow().getBeerName()).isEqualTo("First Update");
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testImportBeers() throws Exception {
+        long countBefore = beerRepository.count();
+
+        String csv = "\"row\",\"count.x\",\"beer\",\"style\"\n" +
+                "\"1\",5,\"Imported Lager\",\"American Pale Lager\"\n" +
+                "\"2\",7,\"Imported IPA\",\"American IPA\"\n" +
+                "\"3\",1,\"\",\"American IPA\"\n";
+
+        mockMvc.perform(multipart(BEER_IMPORT_PATH)
+                        .file(new MockMultipartFile("file", "beers.csv", "text/csv", csv.getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.skipped", is(1)));
+
+        assertThat(beerRepository.count()).isEqualTo(countBefore + 2);
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testImportBeersReportsMalformedRows() throws Exception {
+        long countBefore = beerRepository.count();
+
+        String csv = "\"row\",\"count.x\",\"beer\",\"style\"\n" +
+                "\"1\",5,\"Imported Lager\",\"American Pale Lager\"\n" +
+                "\"2\",lots,\"Broken Count\",\"American IPA\"\n" +
+                "\"3\",7,\"Imported IPA\",\"American IPA\"\n";
+
+        mockMvc.perform(multipart(BEER_IMPORT_PATH)
+                        .file(new MockMultipartFile("file", "beers.csv", "text/csv", csv.getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors.length()", is(1)))
+                .andExpect(jsonPath("$.errors[0].line").isNumber());
+
+        assertThat(beerRepository.count()).isEqualTo(countBefore + 2);
+    }
+
+    @Test
+    void testExportBeersAsNdjson() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(BEER_EXPORT_PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BeerController.NDJSON));
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize((int) beerRepository.count());
+
+        BeerDTO first = objectMapper.readValue(lines[0], BeerDTO.class);
+        assertThat(first.getId()).isNotNull();
+    }
+
+    @Test
+    void testExportBeersAsCsv() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(BEER_EXPORT_PATH)
+                        .queryParam("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        // header line plus one line per beer
+        assertThat(lines).hasSize((int) beerRepository.count() + 1);
+    }
+
+    @Test
+    void testListBeersByStyleWithCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.ALE.name())
+                        .queryParam("after", "")
+                        .queryParam("pageSize", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(300)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+        String lastIdOfFirstPage = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.content[299].id");
+
+        MvcResult secondPage = mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.ALE.name())
+                        .queryParam("after", nextCursor)
+                        .queryParam("pageSize", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(100)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor").value(IsNull.nullValue()))
+                .andReturn();
+
+        assertThat(secondPage.getResponse().getContentAsString()).doesNotContain(lastIdOfFirstPage);
+    }
+
+    @Test
+    void testListBeersWithInvalidCursor() throws Exception {
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListBeersWithKeylessCursor() throws Exception {
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("after", SeekCursor.of(null, UUID.randomUUID()).encode()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testListBeersByStyleAndNameShowInventoryTruePage2Size50() throws Exception {
         mockMvc.perform(get(BEER_PATH)
@@ -116,7 +571,25 @@ class BeerControllerIT {
                         .queryParam("pageSize", "800"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content.size()", is(310)))
-                .andExpect(jsonPath("$.content.[0].quantityOnHand").value(IsNull.nullValue()));
+                .andExpect(jsonPath("$.content.[0].quantityOnHand").doesNotExist());
+    }
+
+    @Test
+    void testGetBeerByIdKeepsNullInventory() throws Exception {
+        Beer saved = beerRepository.save(Beer.builder()
+                .beerName("No Stock Count")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("123123")
+                .price(new BigDecimal("9.99"))
+                .build());
+
+        try {
+            mockMvc.perform(get(BEER_PATH_ID, saved.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("\"quantityOnHand\":null")));
+        } finally {
+            beerRepository.deleteById(saved.getId());
+        }
     }
 
     @Test
@@ -147,10 +620,52 @@ class BeerControllerIT {
                 .andExpect(jsonPath("$.content.size()", is(336)));
     }
 
+    @Test
+    void testListBeersByNameWithCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .queryParam("after", "")
+                        .queryParam("pageSize", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(300)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .queryParam("after", nextCursor)
+                        .queryParam("pageSize", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(36)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void testSearchBeersRanked() throws Exception {
+        MvcResult result = mockMvc.perform(get(BEER_SEARCH_PATH)
+                        .queryParam("query", "ipa")
+                        .queryParam("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(10)))
+                .andReturn();
+
+        List<String> names = JsonPath.read(result.getResponse().getContentAsString(), "$[*].beerName");
+        assertThat(names).allSatisfy(name -> assertThat(name).containsIgnoringCase("ipa"));
+    }
+
+    @Test
+    void testSearchBeersBlankQuery() throws Exception {
+        mockMvc.perform(get(BEER_SEARCH_PATH)
+                        .queryParam("query", " "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testListBeers() {
-        Page<BeerDTO> beerDTOS = beerController
-                .listBeers(null, null, false, null, 2413);
+        List<BeerDTO> beerDTOS = beerController
+                .listBeers(null, null, false, null, 2413, null).getBody().getContent();
 
         assertThat(beerDTOS).hasSize(1000);
     }
@@ -163,8 +678,8 @@ class BeerControllerIT {
         beerRepository.deleteAll();
 
         // when
-        Page<BeerDTO> beerDTOS = beerController
-                .listBeers(null, null, false, 1, 25);
+        List<BeerDTO> beerDTOS = beerController
+                .listBeers(null, null, false, 1, 25, null).getBody().getContent();
 
         // then
         assertThat(beerDTOS).isEmpty();
@@ -176,7 +691,7 @@ class BeerControllerIT {
         Beer beer = beerRepository.findAll().get(0);
 
         // when
-        BeerDTO dto = beerController.getBeerById(beer.getId());
+        BeerDTO dto = beerController.getBeerById(beer.getId(), null).getBody();
 
         // then
         assertThat(dto).isNotNull();
@@ -185,7 +700,7 @@ class BeerControllerIT {
     @Test
     void testBeerIdNotFound() {
         assertThrows(NotFoundException.class, () ->
-                beerController.getBeerById(UUID.randomUUID()));
+                beerController.getBeerById(UUID.randomUUID(), null));
     }
 
     @Transactional
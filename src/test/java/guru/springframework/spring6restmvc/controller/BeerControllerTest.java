@@ -2,7 +2,11 @@ package guru.springframework.spring6restmvc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerBatchService;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import guru.springframework.spring6restmvc.services.BeerService;
 import guru.springframework.spring6restmvc.services.BeerServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,14 +17,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_BATCH_PATH;
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_EXPORT_PATH;
+import static guru.springframework.spring6restmvc.controller.BeerController.BEER_IMPORT_PATH;
 import static guru.springframework.spring6restmvc.controller.BeerController.BEER_PATH;
 import static guru.springframework.spring6restmvc.controller.BeerController.BEER_PATH_ID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +53,15 @@ class BeerControllerTest {
     @MockBean
     BeerService beerService;
 
+    @MockBean
+    BeerImportService beerImportService;
+
+    @MockBean
+    BeerExportService beerExportService;
+
+    @MockBean
+    BeerBatchService beerBatchService;
+
     BeerServiceImpl beerServiceImpl;
 
     @Captor
@@ -157,7 +175,7 @@ class BeerControllerTest {
                 .listBeers(null, null, false, 1, 25)
                 .getContent().get(0);
         given(beerService.patchBeerById(any(), any()))
-                .willReturn(Optional.of(beerDTO));
+                .willReturn(true);
 
         Map<String, Object> beerMap = new HashMap<>();
         beerMap.put("beerName", "New Name");
@@ -215,4 +233,37 @@ class BeerControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.length()", is(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testImportBeers() throws Exception {
+        given(beerImportService.importBeers(any()))
+                .willReturn(BeerImportResultDTO.builder().imported(2).skipped(0).build());
+
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv",
+                "row,beer,style\n1,Pub Beer,American Pale Lager\n".getBytes());
+
+        mockMvc.perform(multipart(BEER_IMPORT_PATH).file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)));
+
+        verify(beerImportService).importBeers(any());
+    }
+
+    @Test
+    void testExportUnsupportedFormat() throws Exception {
+        mockMvc.perform(get(BEER_EXPORT_PATH)
+                        .queryParam("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBatchTooLarge() throws Exception {
+        String items = objectMapper.writeValueAsString(
+                Collections.nCopies(BeerController.MAX_BATCH_SIZE + 1, Map.of("action", "DELETE")));
+
+        mockMvc.perform(post(BEER_BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(items))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,195 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.config.QueryCounter;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.BeerOrder;
+import guru.springframework.spring6restmvc.entities.BeerOrderLine;
+import guru.springframework.spring6restmvc.entities.BeerOrderShipment;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.InsufficientInventoryException;
+import guru.springframework.spring6restmvc.services.UnknownBeerException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BeerOrderControllerIT {
+
+    @Autowired
+    BeerOrderController beerOrderController;
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    EntityManager entityManager;
+
+    @Transactional
+    @Rollback
+    @Test
+    void testListOrdersInConstantQueries() {
+        createOrders(100);
+
+        QueryCounter.Counted<Page<BeerOrderDTO>> counted = QueryCounter
+                .count(() -> beerOrderController.listOrders(1, 100));
+
+        assertThat(counted.result().getContent()).hasSize(100);
+        assertThat(counted.result().getContent()).allSatisfy(order -> {
+            assertThat(order.getCustomerName()).isNotNull();
+            assertThat(order.getTrackingNumber()).isNotNull();
+            assertThat(order.getBeerOrderLines()).hasSize(2)
+                    .allSatisfy(line -> assertThat(line.getBeerName()).isNotNull());
+        });
+        // page of ids, count, and one detail select
+        assertThat(counted.queryCount().total()).isLessThanOrEqualTo(3);
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testGetOrderByIdInOneQuery() {
+        UUID orderId = createOrders(1).get(0).getId();
+
+        QueryCounter.Counted<BeerOrderDTO> counted = QueryCounter
+                .count(() -> beerOrderController.getOrderById(orderId));
+
+        assertThat(counted.result().getId()).isEqualTo(orderId);
+        assertThat(counted.result().getBeerOrderLines()).hasSize(2);
+        assertThat(counted.queryCount().total()).isEqualTo(1);
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testPlaceOrderAllocatesInventory() {
+        Beer beer = beerWithStock(2);
+        Customer customer = customerRepository.findAll().get(0);
+
+        ResponseEntity responseEntity = beerOrderController.placeOrder(BeerOrderCreateDTO.builder()
+                .customerId(customer.getId())
+                .customerRef("flash sale")
+                .beerOrderLines(List.of(
+                        BeerOrderLineCreateDTO.builder().beerId(beer.getId()).orderQuantity(1).build(),
+                        BeerOrderLineCreateDTO.builder().beerId(beer.getId()).orderQuantity(1).build()))
+                .build());
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(201));
+        entityManager.flush();
+        entityManager.clear();
+
+        String[] locationUUID = responseEntity.getHeaders().getLocation().getPath().split("/");
+        BeerOrderDTO order = beerOrderController.getOrderById(UUID.fromString(locationUUID[4]));
+
+        assertThat(order.getBeerOrderLines()).singleElement().satisfies(line -> {
+            assertThat(line.getOrderQuantity()).isEqualTo(2);
+            assertThat(line.getQuantityAllocated()).isEqualTo(2);
+        });
+        assertThat(beerRepository.findById(beer.getId()).get().getQuantityOnHand())
+                .isEqualTo(beer.getQuantityOnHand() - 2);
+    }
+
+    @Test
+    void testPlaceOrderRollsBackWhenAnyLineIsShort() {
+        List<Beer> beers = beerRepository.findAll().stream()
+                .filter(beer -> beer.getQuantityOnHand() != null && beer.getQuantityOnHand() > 0)
+                .limit(2)
+                .toList();
+        Beer inStock = beers.get(0);
+        UUID shortBeerId = beers.get(1).getId();
+
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> beerOrderController.placeOrder(BeerOrderCreateDTO.builder()
+                        .customerId(customerRepository.findAll().get(0).getId())
+                        .beerOrderLines(List.of(
+                                BeerOrderLineCreateDTO.builder().beerId(inStock.getId()).orderQuantity(1).build(),
+                                BeerOrderLineCreateDTO.builder().beerId(shortBeerId)
+                                        .orderQuantity(Integer.MAX_VALUE).build()))
+                        .build()));
+
+        assertThat(exception.getBeerIds()).containsExactly(shortBeerId);
+        assertThat(beerRepository.findById(inStock.getId()).get().getQuantityOnHand())
+                .isEqualTo(inStock.getQuantityOnHand());
+    }
+
+    @Test
+    void testPlaceOrderWithUnknownBeer() {
+        Beer inStock = beerWithStock(1);
+        UUID unknownBeerId = UUID.randomUUID();
+
+        UnknownBeerException exception = assertThrows(UnknownBeerException.class,
+                () -> beerOrderController.placeOrder(BeerOrderCreateDTO.builder()
+                        .customerId(customerRepository.findAll().get(0).getId())
+                        .beerOrderLines(List.of(
+                                BeerOrderLineCreateDTO.builder().beerId(inStock.getId()).orderQuantity(1).build(),
+                                BeerOrderLineCreateDTO.builder().beerId(unknownBeerId).orderQuantity(1).build()))
+                        .build()));
+
+        assertThat(exception.getBeerIds()).containsExactly(unknownBeerId);
+        assertThat(beerRepository.findById(inStock.getId()).get().getQuantityOnHand())
+                .isEqualTo(inStock.getQuantityOnHand());
+    }
+
+    @Test
+    void testGetOrderByIdNotFound() {
+        assertThrows(NotFoundException.class, () -> beerOrderController.getOrderById(UUID.randomUUID()));
+    }
+
+    private Beer beerWithStock(int minimum) {
+        return beerRepository.findAll().stream()
+                .filter(beer -> beer.getQuantityOnHand() != null && beer.getQuantityOnHand() >= minimum)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<BeerOrder> createOrders(int count) {
+        List<Customer> customers = customerRepository.findAll();
+        List<Beer> beers = beerRepository.findAll(PageRequest.of(0, 10)).getContent();
+
+        List<BeerOrder> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BeerOrder beerOrder = beerOrderRepository.save(BeerOrder.builder()
+                    .customerRef("order " + i)
+                    .customer(customers.get(i % customers.size()))
+                    .beerOrderShipment(BeerOrderShipment.builder()
+                            .trackingNumber("track-" + i)
+                            .build())
+                    .build());
+
+            for (int line = 0; line < 2; line++) {
+                entityManager.persist(BeerOrderLine.builder()
+                        .beerOrder(beerOrder)
+                        .beer(beers.get((i + line) % beers.size()))
+                        .orderQuantity(line + 1)
+                        .quantityAllocated(0)
+                        .build());
+            }
+            orders.add(beerOrder);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return orders;
+    }
+}
@@ -0,0 +1,86 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderLineRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.InsufficientInventoryException;
+import guru.springframework.spring6restmvc.services.LedgerInventoryAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "app.inventory.ledger.enabled=true",
+        "app.inventory.ledger.flush-interval=PT1H"
+})
+class BeerOrderLedgerIT {
+
+    @Autowired
+    BeerOrderController beerOrderController;
+    @Autowired
+    LedgerInventoryAllocator ledgerInventoryAllocator;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerOrderLineRepository beerOrderLineRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    void testAllocationsReachBeerOnFlush() {
+        ledgerInventoryAllocator.flush();
+        Beer beer = beerRepository.findAll().stream()
+                .filter(candidate -> candidate.getQuantityOnHand() != null && candidate.getQuantityOnHand() >= 3)
+                .findFirst()
+                .orElseThrow();
+        int onHand = beer.getQuantityOnHand();
+
+        placeOrder(beer, 2);
+
+        // reserved in the ledger only, the beer row is untouched until the flush
+        assertThat(beerRepository.findById(beer.getId()).get().getQuantityOnHand()).isEqualTo(onHand);
+        assertThrows(InsufficientInventoryException.class, () -> placeOrder(beer, onHand - 1));
+
+        assertThat(ledgerInventoryAllocator.flush()).isEqualTo(1);
+
+        assertThat(beerRepository.findById(beer.getId()).get().getQuantityOnHand()).isEqualTo(onHand - 2);
+        assertThat(beerOrderLineRepository.findAll()).allMatch(line -> line.isInventoryFlushed());
+    }
+
+    @Test
+    void testFlushStopsAtZeroAfterRestockBelowOrders() {
+        ledgerInventoryAllocator.flush();
+        Beer beer = beerRepository.findAll().stream()
+                .filter(candidate -> candidate.getQuantityOnHand() != null && candidate.getQuantityOnHand() >= 5)
+                .findFirst()
+                .orElseThrow();
+
+        placeOrder(beer, 5);
+        // a PUT lowering the stock under the unflushed order
+        Beer restocked = beerRepository.findById(beer.getId()).orElseThrow();
+        restocked.setQuantityOnHand(2);
+        beerRepository.save(restocked);
+
+        ledgerInventoryAllocator.flush();
+
+        assertThat(beerRepository.findById(beer.getId()).get().getQuantityOnHand()).isZero();
+    }
+
+    private void placeOrder(Beer beer, int quantity) {
+        beerOrderController.placeOrder(BeerOrderCreateDTO.builder()
+                .customerId(customerRepository.findAll().get(0).getId())
+                .beerOrderLines(List.of(BeerOrderLineCreateDTO.builder()
+                        .beerId(beer.getId())
+                        .orderQuantity(quantity)
+                        .build()))
+                .build());
+    }
+}
@@ -1,11 +1,16 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.config.QueryCounter;
 import guru.springframework.spring6restmvc.entities.Customer;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
+import guru.springframework.spring6restmvc.model.CursorPageDTO;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.CustomerSortField;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.StaleVersionException;
 import jakarta.transaction.TransactionScoped;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -35,7 +40,8 @@ class CustomerControllerIT {
         // given
 
         // when
-        List<CustomerDTO> customerDTOS = customerController.listCustomer();
+        List<CustomerDTO> customerDTOS = customerController
+                .listCustomers(null, null, null, null, null).getContent();
 
         // then
         assertThat(customerDTOS).hasSize(3);
@@ -49,31 +55,148 @@ class CustomerControllerIT {
         customerRepository.deleteAll();
 
         // when
-        List<CustomerDTO> customerDTOS = customerController.listCustomer();
+        List<CustomerDTO> customerDTOS = customerController
+                .listCustomers(null, null, null, null, null).getContent();
 
         // then
         assertThat(customerDTOS).isEmpty();
     }
 
+    @Test
+    void testListCustomersQueryCount() {
+        QueryCounter.Counted<CursorPageDTO<CustomerDTO>> counted = QueryCounter
+                .count(() -> customerController.listCustomers(null, null, null, null, 2));
+
+        assertThat(counted.result().getContent()).hasSize(2);
+        // a keyset slice needs no count query
+        assertThat(counted.queryCount().total()).isEqualTo(1);
+    }
+
+    @Test
+    void testListCustomersWithCursor() {
+        CursorPageDTO<CustomerDTO> firstPage = customerController.listCustomers(null, null, null, null, 2);
+
+        assertThat(firstPage.getContent()).extracting(CustomerDTO::getCustomerName).containsExactly("Jack", "Jim");
+        assertThat(firstPage.isHasNext()).isTrue();
+
+        CursorPageDTO<CustomerDTO> secondPage = customerController
+                .listCustomers(null, null, null, firstPage.getNextCursor(), 2);
+
+        assertThat(secondPage.getContent()).extracting(CustomerDTO::getCustomerName).containsExactly("John");
+        assertThat(secondPage.isHasNext()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testListCustomersByNullableSortKey() {
+        // bootstrap customers have no email, so the cursor carries a null key
+        CursorPageDTO<CustomerDTO> firstPage = customerController
+                .listCustomers(null, null, CustomerSortField.EMAIL, null, 2);
+        CursorPageDTO<CustomerDTO> secondPage = customerController
+                .listCustomers(null, null, CustomerSortField.EMAIL, firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getContent()).hasSize(2);
+        assertThat(secondPage.getContent()).hasSize(1)
+                .doesNotContainAnyElementsOf(firstPage.getContent());
+    }
+
+    @Test
+    void testListCustomersByName() {
+        List<CustomerDTO> customerDTOS = customerController
+                .listCustomers("j", null, null, null, null).getContent();
+
+        assertThat(customerDTOS).hasSize(3);
+        assertThat(customerController.listCustomers("im", null, null, null, null).getContent()).hasSize(1);
+    }
+
+    @Test
+    void testListCustomersWildcardsAreLiteral() {
+        assertThat(customerController.listCustomers(null, "%", null, null, null).getContent()).isEmpty();
+        assertThat(customerController.listCustomers("_", null, null, null, null).getContent()).isEmpty();
+    }
+
+    @Rollback
+    @Transactional
+    @Test
+    void testListCustomersByEmailIgnoresCase() {
+        customerRepository.save(Customer.builder()
+                .customerName("Mixed Case")
+                .email("Mixed.Case@Example.com")
+                .build());
+
+        assertThat(customerController.listCustomers(null, "mixed.case", null, null, null).getContent())
+                .extracting(CustomerDTO::getEmail).containsExactly("mixed.case@example.com");
+    }
+
     @Test
     void testGetCustomerById() {
         // given
         UUID id = customerRepository.findAll().get(0).getId();
 
         // when
-        CustomerDTO found = customerController.getCustomerById(id);
+        CustomerDTO found = customerController.getCustomerById(id, null).getBody();
 
         // then
         assertThat(found).isNotNull();
     }
 
+    @Test
+    void testGetCustomerByIdNotModified() {
+        Customer customer = customerRepository.findAll().get(0);
+
+        ResponseEntity<CustomerDTO> first = customerController.getCustomerById(customer.getId(), null);
+        String eTag = first.getHeaders().getETag();
+        assertThat(eTag).isEqualTo(ETags.strong(customer.getId(), customer.getVersion()));
+
+        QueryCounter.Counted<ResponseEntity<CustomerDTO>> revalidated = QueryCounter
+                .count(() -> customerController.getCustomerById(customer.getId(), eTag));
+
+        assertThat(revalidated.result().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.result().getBody()).isNull();
+        assertThat(revalidated.queryCount().total()).isEqualTo(1);
+        assertThat(customerController.getCustomerById(customer.getId(), "\"stale\"").getBody()).isNotNull();
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testUpdateCustomerIfMatch() {
+        Customer customer = customerRepository.findAll().get(0);
+        CustomerDTO customerDTO = customerMapper.customerToCustomerDto(customer);
+        customerDTO.setCustomerName("UPDATED");
+        String ifMatch = ETags.strong(customer.getId(), customer.getVersion());
+
+        ResponseEntity responseEntity = customerController.updateByIdIfMatch(customer.getId(), ifMatch, customerDTO);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(responseEntity.getHeaders().getETag())
+                .isEqualTo(ETags.strong(customer.getId(), customer.getVersion() + 1));
+
+        StaleVersionException stale = assertThrows(StaleVersionException.class,
+                () -> customerController.updateByIdIfMatch(customer.getId(), ifMatch, customerDTO));
+        assertThat(stale.getCurrentVersion()).isEqualTo(customer.getVersion() + 1);
+    }
+
+    @Transactional
+    @Rollback
+    @Test
+    void testPatchCustomerIfMatchValidatesValues() {
+        Customer customer = customerRepository.findAll().get(0);
+        String ifMatch = ETags.strong(customer.getId(), customer.getVersion());
+
+        assertThrows(ConstraintViolationException.class, () -> customerController.patchCustomerByIdIfMatch(
+                customer.getId(), ifMatch, CustomerDTO.builder().email("x".repeat(256)).build()));
+
+        assertThat(customerRepository.findVersionById(customer.getId())).contains(customer.getVersion());
+    }
+
     @Test
     void testGetCustomerIdNotFound() {
         // given
         UUID id = UUID.randomUUID();
 
         // then
-        assertThrows(NotFoundException.class, () ->  customerController.getCustomerById(id));
+        assertThrows(NotFoundException.class, () ->  customerController.getCustomerById(id, null));
     }
 
     @Transactional
@@ -15,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -56,13 +57,15 @@ class CustomerControllerTest {
 
     @Test
     void listCustomer() throws Exception {
-        given(customerService.listCustomer()).willReturn(customerServiceImpl.listCustomer());
+        given(customerService.listCustomers(any(), any(), any(), any(), any()))
+                .willReturn(customerServiceImpl.listCustomers(null, null, null, null, null));
 
         mockMvc.perform(get(CUSTOMER_PATH)
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()", is(3)));
+                .andExpect(jsonPath("$.content.length()", is(3)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
     }
 
     @Test
@@ -76,7 +79,7 @@ class CustomerControllerTest {
 
     @Test
     void getCustomerById() throws Exception {
-        CustomerDTO testCustomerDTO = customerServiceImpl.listCustomer().get(0);
+        CustomerDTO testCustomerDTO = customers().get(0);
 
         given(customerService.getCustomerById(testCustomerDTO.getId())).willReturn(Optional.of(testCustomerDTO));
 
@@ -90,11 +93,11 @@ class CustomerControllerTest {
 
     @Test
     void testCreateNewCustomer() throws Exception {
-        CustomerDTO customerDTO = customerServiceImpl.listCustomer().get(0);
+        CustomerDTO customerDTO = customers().get(0);
         customerDTO.setId(null);
         customerDTO.setVersion(null);
 
-        given(customerService.saveNewCustomer(any(CustomerDTO.class))).willReturn(customerServiceImpl.listCustomer().get(1));
+        given(customerService.saveNewCustomer(any(CustomerDTO.class))).willReturn(customers().get(1));
 
         mockMvc.perform(post(CUSTOMER_PATH)
                 .accept(MediaType.APPLICATION_JSON)
@@ -106,7 +109,7 @@ class CustomerControllerTest {
 
     @Test
     void testUpdateCustomer() throws Exception {
-        CustomerDTO customerDTO = customerServiceImpl.listCustomer().get(0);
+        CustomerDTO customerDTO = customers().get(0);
         given(customerService.updateCustomerById(any(), any()))
                 .willReturn(Optional.of(customerDTO));
 
@@ -123,7 +126,7 @@ class CustomerControllerTest {
 
     @Test
     void testDeleteCustomer() throws Exception {
-        CustomerDTO customerDTO = customerServiceImpl.listCustomer().get(0);
+        CustomerDTO customerDTO = customers().get(0);
         given(customerService.deleteById(any()))
                 .willReturn(true);
 
@@ -138,11 +141,11 @@ class CustomerControllerTest {
 
     @Test
     void testPatchCustomer() throws Exception {
-        CustomerDTO customerDTO = customerServiceImpl.listCustomer().get(0);
+        CustomerDTO customerDTO = customers().get(0);
         Map<String, Object> customerMap = new HashMap<>();
         customerMap.put("customerName", "New Customer Name");
         given(customerService.patchById(any(), any()))
-                .willReturn(Optional.of(customerDTO));
+                .willReturn(true);
 
         mockMvc.perform(patch(CUSTOMER_PATH_ID, customerDTO.getId())
                 .accept(MediaType.APPLICATION_JSON)
@@ -154,4 +157,15 @@ class CustomerControllerTest {
         assertThat(customerDTO.getId()).isEqualTo(uuidArgumentCaptor.getValue());
         assertThat(customerMap.get("customerName")).isEqualTo(customerArgumentCaptor.getValue().getCustomerName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void listCustomerInvalidSort() throws Exception {
+        mockMvc.perform(get(CUSTOMER_PATH)
+                        .queryParam("sortBy", "SHOE_SIZE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<CustomerDTO> customers() {
+        return customerServiceImpl.listCustomers(null, null, null, null, null).getContent();
+    }
+}
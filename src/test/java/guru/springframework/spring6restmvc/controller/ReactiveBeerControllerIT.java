@@ -0,0 +1,91 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReactiveBeerControllerIT {
+
+    @Autowired
+    ReactiveBeerController reactiveBeerController;
+    @Autowired
+    ReactiveCustomerController reactiveCustomerController;
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    void testListBeersReadsSameDatabase() {
+        List<BeerDTO> beers = reactiveBeerController.listBeers(null, null, null, 50).collectList().block();
+
+        assertThat(beers).hasSize(50);
+        assertThat(beers).isSortedAccordingTo(Comparator.comparing(BeerDTO::getBeerName));
+        assertThat(beers).allSatisfy(beer -> assertThat(beer.getId()).isNotNull());
+    }
+
+    @Test
+    void testListBeersByStyleAndName() {
+        List<BeerDTO> beers = reactiveBeerController.listBeers("IPA", BeerStyle.IPA, false, 1000)
+                .collectList().block();
+
+        assertThat(beers).isNotEmpty();
+        assertThat(beers).allSatisfy(beer -> {
+            assertThat(beer.getBeerStyle()).isEqualTo(BeerStyle.IPA);
+            assertThat(beer.getBeerName().toUpperCase()).contains("IPA");
+            assertThat(beer.getQuantityOnHand()).isNull();
+        });
+    }
+
+    @Test
+    void testListBeersByStyleMatchesJpa() {
+        long expected = beerRepository.findAllByBeerStyle(BeerStyle.PILSNER, Pageable.unpaged()).getTotalElements();
+
+        List<BeerDTO> beers = reactiveBeerController.listBeers(null, BeerStyle.PILSNER, false, 1000)
+                .collectList().block();
+
+        assertThat(expected).isPositive();
+        assertThat(beers).hasSize((int) Math.min(expected, 1000));
+        assertThat(beers).allSatisfy(beer -> assertThat(beer.getBeerStyle()).isEqualTo(BeerStyle.PILSNER));
+    }
+
+    @Test
+    void testListWildcardsAreLiteral() {
+        assertThat(reactiveBeerController.listBeers("%", null, false, 10).collectList().block()).isEmpty();
+        assertThat(reactiveCustomerController.listCustomers("_", 10).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void testGetBeerById() {
+        Beer beer = beerRepository.findAll().get(0);
+
+        BeerDTO dto = reactiveBeerController.getBeerById(beer.getId()).block();
+
+        assertThat(dto.getId()).isEqualTo(beer.getId());
+        assertThat(dto.getBeerName()).isEqualTo(beer.getBeerName());
+        assertThat(dto.getBeerStyle()).isEqualTo(beer.getBeerStyle());
+    }
+
+    @Test
+    void testGetBeerByIdNotFound() {
+        assertThatThrownBy(() -> reactiveBeerController.getBeerById(UUID.randomUUID()).block())
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void testListCustomers() {
+        assertThat(reactiveCustomerController.listCustomers(null, null).collectList().block())
+                .hasSize(3);
+    }
+}
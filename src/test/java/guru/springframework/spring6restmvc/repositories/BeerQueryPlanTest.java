@@ -0,0 +1,112 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.bootstrap.BootstrapData;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
+import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL behind every beer listing path and fails when one of them
+ * scans the whole beer table. H2 in MySQL mode stands in for MySQL here; the indexes
+ * come from the same definitions as the V6 migration.
+ * <p>
+ * Name-only filters ({@code '%term%'}) can't use a B-tree index and are left out; listings
+ * filtered only by name get their ids from {@code BeerNameIndex} and go through
+ * {@code findBeerDtosIn}, except for terms shorter than a trigram.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerplans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "guru.springframework.spring6restmvc.repositories.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BootstrapData.class, BeerCsvServiceImpl.class})
+class BeerQueryPlanTest {
+
+    private static final PageRequest BY_NAME = PageRequest.of(1, 25, Sort.by("beerName"));
+    private static final SeekCursor CURSOR = SeekCursor.of("M", new UUID(0, 0));
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    static Stream<Arguments> listPaths() {
+        return Stream.of(
+                listPath("findAllByBeerStyle",
+                        repository -> repository.findAllByBeerStyle(BeerStyle.ALE, BY_NAME)),
+                listPath("findAllByBeerStyleAndBeerNameIsLikeIgnoreCase",
+                        repository -> repository.findAllByBeerStyleAndBeerNameIsLikeIgnoreCase(BeerStyle.IPA, "%IPA%", BY_NAME)),
+                listPath("findBeerDtos unfiltered",
+                        repository -> repository.findBeerDtos(null, null, true, BY_NAME)),
+                listPath("findBeerDtos by style",
+                        repository -> repository.findBeerDtos(null, BeerStyle.ALE, true, BY_NAME)),
+                listPath("findBeerDtos by style and name",
+                        repository -> repository.findBeerDtos("%IPA%", BeerStyle.IPA, true, BY_NAME)),
+                listPath("findBeerDtosIn",
+                        repository -> repository.findBeerDtosIn(List.of(new UUID(0, 1), new UUID(0, 2)), true, BY_NAME)),
+                listPath("findBeerDtosAfter unfiltered",
+                        repository -> repository.findBeerDtosAfter(null, null, true, CURSOR, 25)),
+                listPath("findBeerDtosAfter by style",
+                        repository -> repository.findBeerDtosAfter(null, BeerStyle.ALE, true, CURSOR, 25))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("listPaths")
+    void testListPathDoesNotScanBeerTable(String name, Consumer<BeerRepository> listCall) throws SQLException {
+        RecordingStatementInspector.clear();
+        listCall.accept(beerRepository);
+
+        List<String> selects = RecordingStatementInspector.selects();
+        assertThat(selects).isNotEmpty();
+
+        for (String sql : selects) {
+            if (isUnfilteredCount(sql)) {
+                // counting every row is a full pass whatever the indexes
+                continue;
+            }
+            assertThat(explain(sql)).as(sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static boolean isUnfilteredCount(String sql) {
+        String lower = sql.toLowerCase();
+        return lower.contains("count(") && !lower.contains(" where ");
+    }
+
+    private static Arguments listPath(String name, Consumer<BeerRepository> listCall) {
+        return Arguments.of(name, listCall);
+    }
+}
@@ -2,7 +2,9 @@ package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.bootstrap.BootstrapData;
 import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SeekCursor;
 import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
@@ -10,8 +12,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -44,6 +51,63 @@ class BeerRepositoryTest {
         assertThat(listIpa).hasSize(336);
     }
 
+    @Test
+    void testGetBeerDtosByStyleAfterCursor() {
+        Slice<BeerDTO> firstSlice = beerRepository.findBeerDtosAfter(null, BeerStyle.ALE, true, null, 250);
+        BeerDTO last = firstSlice.getContent().get(firstSlice.getNumberOfElements() - 1);
+        Slice<BeerDTO> secondSlice = beerRepository.findBeerDtosAfter(null, BeerStyle.ALE, true,
+                SeekCursor.of(last.getBeerName(), last.getId()), 250);
+
+        assertThat(firstSlice).hasSize(250);
+        assertThat(firstSlice.hasNext()).isTrue();
+        assertThat(secondSlice).hasSize(150);
+        assertThat(secondSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    void testGetBeerDtosByStyleAndName() {
+        Page<BeerDTO> page = beerRepository.findBeerDtos("%IPA%", BeerStyle.IPA, true,
+                PageRequest.of(0, 25, Sort.by("beerName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(310);
+        assertThat(page.getContent()).hasSize(25);
+        assertThat(page.getContent().get(0).getId()).isNotNull();
+        assertThat(page.getContent().get(0).getQuantityOnHand()).isNotNull();
+    }
+
+    @Test
+    void testGetBeerDtosInPagesLikeNamePattern() {
+        PageRequest pageRequest = PageRequest.of(2, 25, Sort.by("beerName", "id"));
+        List<UUID> ids = beerRepository.findBeerDtos("%IPA%", null, true, PageRequest.of(0, 1000))
+                .map(BeerDTO::getId).getContent();
+
+        Page<BeerDTO> byPattern = beerRepository.findBeerDtos("%IPA%", null, true, pageRequest);
+        Page<BeerDTO> byIds = beerRepository.findBeerDtosIn(ids, true, pageRequest);
+
+        assertThat(byIds.getTotalElements()).isEqualTo(byPattern.getTotalElements());
+        assertThat(byIds.getContent()).extracting(BeerDTO::getId)
+                .containsExactlyElementsOf(byPattern.map(BeerDTO::getId).getContent());
+    }
+
+    @Test
+    void testGetBeerDtosEscapedWildcardIsLiteral() {
+        beerRepository.save(beerNamed("Hop 100% Ale"));
+        beerRepository.save(beerNamed("Hop 1000 Ale"));
+
+        Page<BeerDTO> page = beerRepository.findBeerDtos("%100!%%", null, true, PageRequest.of(0, 25));
+
+        assertThat(page.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Hop 100% Ale");
+    }
+
+    @Test
+    void testGetBeerDtosWithoutInventory() {
+        Page<BeerDTO> page = beerRepository.findBeerDtos(null, BeerStyle.IPA, false,
+                PageRequest.of(0, 25, Sort.by("beerName")));
+
+        assertThat(page.getContent()).hasSize(25)
+                .allSatisfy(beerDTO -> assertThat(beerDTO.getQuantityOnHand()).isNull());
+    }
+
     @Test
     void testSaveBeer() {
         Beer savedBeer = beerRepository.save(Beer.builder()
@@ -73,4 +137,13 @@ class BeerRepositoryTest {
             beerRepository.flush();
         });
     }
-}
\ No newline at end of file
+
+    private static Beer beerNamed(String beerName) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.ALE)
+                .upc("123123")
+                .price(new BigDecimal("9.99"))
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+    Statistics statistics;
+    UUID beerId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        beerId = beerRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getId();
+    }
+
+    @Test
+    void testBeerLoadedFromCacheInNextTransaction() {
+        beerRepository.findById(beerId);
+        long hits = region("beer").getHitCount();
+
+        beerRepository.findById(beerId);
+
+        assertThat(region("beer").getHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    void testCategoriesLoadedFromCacheInNextTransaction() {
+        transactionTemplate.executeWithoutResult(status ->
+                beerRepository.findById(beerId).orElseThrow().getCategories().size());
+        long hits = region("beer-categories").getHitCount();
+
+        transactionTemplate.executeWithoutResult(status ->
+                beerRepository.findById(beerId).orElseThrow().getCategories().size());
+
+        assertThat(region("beer-categories").getHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    void testStyleListingServedFromQueryCache() {
+        PageRequest pageRequest = PageRequest.of(0, 25, Sort.by("beerName"));
+        beerRepository.findBeerDtos(null, BeerStyle.PORTER, true, pageRequest);
+        long hits = statistics.getQueryRegionStatistics(BeerRepositoryCustomImpl.LISTING_CACHE_REGION).getHitCount();
+
+        beerRepository.findBeerDtos(null, BeerStyle.PORTER, true, pageRequest);
+
+        assertThat(statistics.getQueryRegionStatistics(BeerRepositoryCustomImpl.LISTING_CACHE_REGION).getHitCount())
+                .isGreaterThan(hits);
+    }
+
+    @Test
+    void testBeerWriteInvalidatesStyleListing() {
+        PageRequest pageRequest = PageRequest.of(0, 25, Sort.by("beerName"));
+        beerRepository.findBeerDtos(null, BeerStyle.PORTER, true, pageRequest);
+
+        Beer saved = beerRepository.save(Beer.builder()
+                .beerName("Cache Buster")
+                .beerStyle(BeerStyle.PORTER)
+                .upc("123123")
+                .price(new BigDecimal("9.99"))
+                .build());
+
+        try {
+            long hits = statistics.getQueryRegionStatistics(BeerRepositoryCustomImpl.LISTING_CACHE_REGION).getHitCount();
+
+            assertThat(beerRepository.findBeerDtos(null, BeerStyle.PORTER, true, PageRequest.of(0, 1000))
+                    .getContent()).anyMatch(beerDTO -> beerDTO.getId().equals(saved.getId()));
+            beerRepository.findBeerDtos(null, BeerStyle.PORTER, true, pageRequest);
+
+            assertThat(statistics.getQueryRegionStatistics(BeerRepositoryCustomImpl.LISTING_CACHE_REGION).getHitCount())
+                    .isEqualTo(hits);
+        } finally {
+            beerRepository.deleteById(saved.getId());
+        }
+    }
+
+    private CacheRegionStatistics region(String regionName) {
+        return statistics.getDomainDataRegionStatistics(regionName);
+    }
+}
@@ -1,11 +1,16 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerStyle;
 import org.junit.jupiter.api.Test;
 import org.springframework.util.ResourceUtils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,4 +25,27 @@ class BeerCsvServiceTest {
         List<BeerCSVRecord> records = beerCsvService.convertCSV(file);
         assertThat(records.size()).isPositive().isEqualTo(2410);
     }
-}
\ No newline at end of file
+
+    @Test
+    void iterateCsv() throws IOException {
+        File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+
+        int count = 0;
+        try (Reader reader = new FileReader(file)) {
+            Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader);
+            while (records.hasNext()) {
+                records.next();
+                count++;
+            }
+        }
+
+        assertThat(count).isEqualTo(2410);
+    }
+
+    @Test
+    void mapBeerStyle() {
+        assertThat(beerCsvService.mapBeerStyle("American IPA")).isEqualTo(BeerStyle.IPA);
+        assertThat(beerCsvService.mapBeerStyle("Oatmeal Stout")).isEqualTo(BeerStyle.STOUT);
+        assertThat(beerCsvService.mapBeerStyle("Something Else")).isEqualTo(BeerStyle.PILSNER);
+    }
+}
@@ -0,0 +1,117 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerDtoCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+    BeerDtoCache beerDtoCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerDtoCache = new BeerDtoCache(100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void testPutAndGetReturnsCopy() {
+        BeerDTO beerDTO = beer(UUID.randomUUID(), 1);
+        beerDtoCache.put(beerDTO);
+
+        BeerDTO cached = beerDtoCache.get(beerDTO.getId()).orElseThrow();
+        cached.setBeerName("Changed");
+
+        assertThat(beerDtoCache.get(beerDTO.getId()).orElseThrow().getBeerName()).isEqualTo("Galaxy Cat");
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceNewer() {
+        UUID id = UUID.randomUUID();
+        beerDtoCache.put(beer(id, 2));
+        beerDtoCache.put(beer(id, 1));
+
+        assertThat(beerDtoCache.get(id).orElseThrow().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void testStaleLoadRefusedAfterInvalidate() {
+        UUID id = UUID.randomUUID();
+        beerDtoCache.put(beer(id, 1));
+        beerDtoCache.invalidate(id, 2);
+
+        beerDtoCache.put(beer(id, 1));
+        assertThat(beerDtoCache.get(id)).isEmpty();
+
+        beerDtoCache.put(beer(id, 2));
+        assertThat(beerDtoCache.get(id)).isPresent();
+    }
+
+    @Test
+    void testDeletedBeerIsNotCachedAgain() {
+        UUID id = UUID.randomUUID();
+        beerDtoCache.put(beer(id, 5));
+        beerDtoCache.invalidate(id);
+
+        beerDtoCache.put(beer(id, 5));
+
+        assertThat(beerDtoCache.get(id)).isEmpty();
+    }
+
+    @Test
+    void testEvictRefusesVersionItReplaced() {
+        UUID id = UUID.randomUUID();
+        beerDtoCache.put(beer(id, 3));
+        beerDtoCache.evict(id);
+
+        beerDtoCache.put(beer(id, 3));
+        assertThat(beerDtoCache.get(id)).isEmpty();
+
+        beerDtoCache.put(beer(id, 4));
+        assertThat(beerDtoCache.get(id)).isPresent();
+    }
+
+    @Test
+    void testEvictRefusesLoadStartedBeforeIt() {
+        UUID id = UUID.randomUUID();
+        long staleTicket = beerDtoCache.loadTicket();
+        beerDtoCache.evict(id);
+
+        beerDtoCache.put(beer(id, 3), staleTicket);
+        assertThat(beerDtoCache.get(id)).isEmpty();
+
+        beerDtoCache.put(beer(id, 3), beerDtoCache.loadTicket());
+        assertThat(beerDtoCache.get(id)).isPresent();
+    }
+
+    @Test
+    void testHitAndMissCountersRegistered() {
+        UUID id = UUID.randomUUID();
+        beerDtoCache.get(id);
+        beerDtoCache.put(beer(id, 0));
+        beerDtoCache.get(id);
+
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    private BeerDTO beer(UUID id, Integer version) {
+        return BeerDTO.builder()
+                .id(id)
+                .version(version)
+                .beerName("Galaxy Cat")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("123456")
+                .price(new BigDecimal("12.99"))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerNameIndexTest {
+
+    BeerNameIndex beerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        beerNameIndex = new BeerNameIndex();
+        beerNameIndex.put(UUID.randomUUID(), "Galaxy Cat", BeerStyle.PALE_ALE);
+        beerNameIndex.put(UUID.randomUUID(), "Crank", BeerStyle.PALE_ALE);
+        beerNameIndex.put(UUID.randomUUID(), "Sunshine City", BeerStyle.IPA);
+        beerNameIndex.put(UUID.randomUUID(), "Citywide IPA", BeerStyle.IPA);
+        beerNameIndex.put(UUID.randomUUID(), "Simplicity", BeerStyle.LAGER);
+    }
+
+    @Test
+    void testFindIsCaseInsensitiveSubstring() {
+        List<BeerNameIndex.Match> matches = beerNameIndex.findSortedByName("CITY", null);
+
+        assertThat(matches).extracting(BeerNameIndex.Match::beerName)
+                .containsExactly("Citywide IPA", "Simplicity", "Sunshine City");
+    }
+
+    @Test
+    void testFindFiltersByStyle() {
+        assertThat(beerNameIndex.findSortedByName("city", BeerStyle.IPA)).hasSize(2);
+    }
+
+    @Test
+    void testGramsPresentOutOfOrderDoNotMatch() {
+        // "cat" and "gal" are both grams of Galaxy Cat but "galcat" is not a substring
+        assertThat(beerNameIndex.findSortedByName("galcat", null)).isEmpty();
+    }
+
+    @Test
+    void testWildcardCharactersAreLiteral() {
+        beerNameIndex.put(UUID.randomUUID(), "Hop 100% Ale", BeerStyle.ALE);
+        beerNameIndex.put(UUID.randomUUID(), "Hop 1000 Ale", BeerStyle.ALE);
+
+        assertThat(beerNameIndex.findIds("100%", null)).hasSize(1);
+        assertThat(beerNameIndex.findIds("p_1", null)).isEmpty();
+    }
+
+    @Test
+    void testShortTermsAreNotIndexable() {
+        assertThat(BeerNameIndex.isIndexable("ci")).isFalse();
+        assertThat(BeerNameIndex.isIndexable("cit")).isTrue();
+    }
+
+    @Test
+    void testShortTermsScanNames() {
+        assertThat(beerNameIndex.findSortedByName("ci", null)).extracting(BeerNameIndex.Match::beerName)
+                .containsExactly("Citywide IPA", "Simplicity", "Sunshine City");
+    }
+
+    @Test
+    void testRankedPrefersPrefixThenWordPrefix() {
+        List<BeerNameIndex.Match> ranked = beerNameIndex.findRanked("city", null, 10);
+
+        assertThat(ranked).extracting(BeerNameIndex.Match::matchType).containsExactly(
+                BeerNameIndex.MatchType.PREFIX, BeerNameIndex.MatchType.WORD_PREFIX, BeerNameIndex.MatchType.INFIX);
+        assertThat(beerNameIndex.findRanked("city", null, 1)).extracting(BeerNameIndex.Match::beerName)
+                .containsExactly("Citywide IPA");
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDrops() {
+        UUID id = UUID.randomUUID();
+        beerNameIndex.put(id, "Hazy Town", BeerStyle.IPA);
+        beerNameIndex.put(id, "Foggy Town", BeerStyle.IPA);
+
+        assertThat(beerNameIndex.findSortedByName("hazy", null)).isEmpty();
+        assertThat(beerNameIndex.findSortedByName("foggy", null)).hasSize(1);
+
+        beerNameIndex.remove(id);
+
+        assertThat(beerNameIndex.findSortedByName("town", null)).isEmpty();
+        assertThat(beerNameIndex.size()).isEqualTo(5);
+    }
+}
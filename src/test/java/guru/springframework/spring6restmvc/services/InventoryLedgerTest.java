@@ -0,0 +1,91 @@
+package guru.springframework.spring6restmvc.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryLedgerTest {
+
+    UUID beerId = UUID.randomUUID();
+
+    @Test
+    void testReserveAcrossStripes() {
+        InventoryLedger ledger = new InventoryLedger(8);
+
+        assertThat(ledger.tryReserve(beerId, 7, id -> 10)).isTrue();
+        assertThat(ledger.tryReserve(beerId, 4, id -> 10)).isFalse();
+        assertThat(ledger.tryReserve(beerId, 3, id -> 10)).isTrue();
+        assertThat(ledger.available(beerId)).isZero();
+    }
+
+    @Test
+    void testReleaseReturnsStock() {
+        InventoryLedger ledger = new InventoryLedger(4);
+
+        ledger.tryReserve(beerId, 5, id -> 5);
+        ledger.release(beerId, 5);
+
+        assertThat(ledger.available(beerId)).isEqualTo(5);
+    }
+
+    @Test
+    void testReloadAccountsForInFlightReservations() {
+        InventoryLedger ledger = new InventoryLedger(4);
+        AtomicLong committed = new AtomicLong(10);
+
+        ledger.tryReserve(beerId, 4, id -> committed.get());
+        ledger.evict(beerId);
+
+        // the database still shows 10 because the reservation hasn't committed
+        assertThat(ledger.tryReserve(beerId, 7, id -> committed.get())).isFalse();
+        assertThat(ledger.tryReserve(beerId, 6, id -> committed.get())).isTrue();
+    }
+
+    @Test
+    void testFailedLoadLeavesNothingInFlight() {
+        InventoryLedger ledger = new InventoryLedger(4);
+
+        assertThatThrownBy(() -> ledger.tryReserve(beerId, 3, id -> {
+            throw new IllegalStateException("timeout");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(ledger.tryReserve(beerId, 10, id -> 10)).isTrue();
+    }
+
+    @Test
+    void testNeverOversellsUnderContention() throws Exception {
+        InventoryLedger ledger = new InventoryLedger(8);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        try {
+            Future<?>[] futures = new Future<?>[16];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (ledger.tryReserve(beerId, 1, id -> 1000)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(sold.get()).isEqualTo(1000);
+        assertThat(ledger.available(beerId)).isZero();
+    }
+}